@@ -0,0 +1,74 @@
+package com.openclassrooms.tourguide.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+
+import com.openclassrooms.tourguide.geo.GreatCircle;
+import com.openclassrooms.tourguide.service.RewardsService;
+
+/**
+ * Distance between two locations, and the radius predicate used by the proximity checks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+	private static final int LOCATIONS = 1024;
+
+	private RewardsService rewardsService;
+	private Location[] locations;
+	private List<Attraction> attractions;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		rewardsService = StandIns.newRewardsService(new StandIns.ZeroLatencyGpsUtil(26, 1));
+		attractions = rewardsService.getAttractionCatalog().getAttractions();
+		Random random = new Random(2);
+		locations = new Location[LOCATIONS];
+		for (int i = 0; i < LOCATIONS; i++) {
+			locations[i] = StandIns.randomLocation(random);
+		}
+	}
+
+	@Benchmark
+	public double getDistance() {
+		int i = next++;
+		return rewardsService.getDistance(locations[i & (LOCATIONS - 1)], locations[(i * 31 + 7) & (LOCATIONS - 1)]);
+	}
+
+	@Benchmark
+	public boolean isWithin() {
+		int i = next++;
+		return GreatCircle.isWithin(locations[i & (LOCATIONS - 1)], locations[(i * 31 + 7) & (LOCATIONS - 1)], 10);
+	}
+
+	/**
+	 * Proximity check of the reward rules: the unit vector of the attraction comes from the index and the
+	 * chord of the radius is precomputed.
+	 */
+	@Benchmark
+	public boolean isWithinAttractionProximity() {
+		int i = next++;
+		return rewardsService.isWithinAttractionProximity(attractions.get(i % attractions.size()),
+				locations[i & (LOCATIONS - 1)]);
+	}
+}
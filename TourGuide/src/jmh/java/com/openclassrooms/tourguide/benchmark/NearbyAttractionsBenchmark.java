@@ -0,0 +1,71 @@
+package com.openclassrooms.tourguide.benchmark;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.benchmark.StandIns.ZeroLatencyGpsUtil;
+import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.service.TourGuideService;
+
+/**
+ * The 5 attractions closest to a location, at varying attraction counts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearbyAttractionsBenchmark {
+	private static final int LOCATIONS = 1024;
+
+	@Param({ "26", "1000", "10000" })
+	public int attractionCount;
+
+	private TourGuideService tourGuideService;
+	private VisitedLocation[] visitedLocations;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		ZeroLatencyGpsUtil gpsUtil = new ZeroLatencyGpsUtil(attractionCount, 1);
+		InternalTestHelper.setInternalUserNumber(0);
+		tourGuideService = new TourGuideService(gpsUtil, StandIns.newRewardsService(gpsUtil));
+		tourGuideService.tracker.stopTracking();
+		Random random = new Random(4);
+		UUID userId = UUID.randomUUID();
+		visitedLocations = new VisitedLocation[LOCATIONS];
+		for (int i = 0; i < LOCATIONS; i++) {
+			visitedLocations[i] = new VisitedLocation(userId, StandIns.randomLocation(random), new Date());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		tourGuideService.tracker.stopTracking();
+	}
+
+	@Benchmark
+	public List<Attraction> getNearByAttractions() {
+		return tourGuideService.getNearByAttractions(visitedLocations[next++ & (LOCATIONS - 1)]);
+	}
+}
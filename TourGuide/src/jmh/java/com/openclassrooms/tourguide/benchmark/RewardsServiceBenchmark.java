@@ -0,0 +1,112 @@
+package com.openclassrooms.tourguide.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserReward;
+
+/**
+ * Reward evaluation of one user, at varying history lengths and attraction counts. One visit in ten is at an
+ * attraction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewardsServiceBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int historyLength;
+
+	@Param({ "26", "1000", "10000" })
+	public int attractionCount;
+
+	private RewardsService rewardsService;
+	private List<Location> visits;
+	private User rewardedUser;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		rewardsService = StandIns.newRewardsService(new StandIns.ZeroLatencyGpsUtil(attractionCount, 1));
+		List<Attraction> attractions = rewardsService.getAttractionCatalog().getAttractions();
+		Random random = new Random(3);
+		visits = new ArrayList<>(historyLength);
+		for (int i = 0; i < historyLength; i++) {
+			visits.add(i % 10 == 0 ? attractions.get(random.nextInt(attractions.size())) : StandIns.randomLocation(random));
+		}
+		rewardedUser = newUser(this);
+		rewardsService.calculateRewards(rewardedUser);
+	}
+
+	/**
+	 * First evaluation of a user: every location is checked and the rewards are added.
+	 */
+	@Benchmark
+	public List<UserReward> evaluateNewUser(NewUser newUser) {
+		rewardsService.calculateRewards(newUser.user);
+		return newUser.user.getUserRewards();
+	}
+
+	/**
+	 * Evaluation of every location again after the rules changed, the rewards being already known.
+	 */
+	@Benchmark
+	public List<UserReward> reevaluateRewardedUser() {
+		rewardsService.setDefaultProximityBuffer();
+		rewardsService.calculateRewards(rewardedUser);
+		return rewardedUser.getUserRewards();
+	}
+
+	/**
+	 * Proximity check of the tracking cadence, run on every tracked location. Its allocation rate, reported by
+	 * the gc profiler of the benchmark profile, should not grow with the attraction count.
+	 */
+	@Benchmark
+	public boolean isNearUnrewardedAttraction() {
+		return rewardsService.isNearUnrewardedAttraction(rewardedUser, visits.get(next++ % visits.size()));
+	}
+
+	static User newUser(RewardsServiceBenchmark benchmark) {
+		User user = new User(UUID.randomUUID(), "bench", "000", "bench@tourGuide.com", benchmark.historyLength);
+		for (Location location : benchmark.visits) {
+			user.addToVisitedLocations(new VisitedLocation(user.getUserId(), location, new Date()));
+		}
+		return user;
+	}
+
+	@State(Scope.Thread)
+	public static class NewUser {
+		private User user;
+
+		@Setup(Level.Invocation)
+		public void setUp(RewardsServiceBenchmark benchmark) {
+			user = newUser(benchmark);
+		}
+	}
+}
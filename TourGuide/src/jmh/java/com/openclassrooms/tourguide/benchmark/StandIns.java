@@ -0,0 +1,90 @@
+package com.openclassrooms.tourguide.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.attraction.AttractionCatalog;
+import com.openclassrooms.tourguide.cache.ExpiringCache;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.gateway.RewardPointsGateway;
+import com.openclassrooms.tourguide.gateway.RewardPointsKey;
+import com.openclassrooms.tourguide.service.RewardsService;
+
+/**
+ * Zero-latency stand-ins for GpsUtil and RewardCentral, so that the benchmarks measure the code of the
+ * application rather than the sleeps and the rate limiter of the vendor libraries.
+ */
+final class StandIns {
+
+	private StandIns() {
+	}
+
+	/**
+	 * Rewards service over the given attractions, whose reward points are answered immediately.
+	 */
+	static RewardsService newRewardsService(GpsUtil gpsUtil) {
+		return new RewardsService(new AttractionCatalog(gpsUtil), new ZeroLatencyRewardPoints(),
+				new BoundedExecutor("rewards", BoundedExecutor.defaultPoolSize(), 10_000),
+				new ExpiringCache<>(1_000_000, Duration.ofHours(1)));
+	}
+
+	static Location randomLocation(Random random) {
+		return new Location(-85 + random.nextDouble() * 170, -180 + random.nextDouble() * 360);
+	}
+
+	/**
+	 * GpsUtil answering immediately, with a fixed set of attractions spread over the globe.
+	 */
+	static final class ZeroLatencyGpsUtil extends GpsUtil {
+		private final List<Attraction> attractions;
+
+		ZeroLatencyGpsUtil(int attractionCount, long seed) {
+			Random random = new Random(seed);
+			List<Attraction> list = new ArrayList<>(attractionCount);
+			for (int i = 0; i < attractionCount; i++) {
+				Location location = randomLocation(random);
+				list.add(new Attraction("Attraction " + i, "City", "State", location.latitude, location.longitude));
+			}
+			this.attractions = List.copyOf(list);
+		}
+
+		@Override
+		public List<Attraction> getAttractions() {
+			return attractions;
+		}
+
+		@Override
+		public VisitedLocation getUserLocation(UUID userId) {
+			return new VisitedLocation(userId, randomLocation(ThreadLocalRandom.current()), new Date());
+		}
+	}
+
+	/**
+	 * Reward points derived from the key, answered on the calling thread.
+	 */
+	static final class ZeroLatencyRewardPoints implements RewardPointsGateway {
+
+		@Override
+		public Map<RewardPointsKey, CompletableFuture<Integer>> getPointsAsync(Collection<RewardPointsKey> keys) {
+			Map<RewardPointsKey, CompletableFuture<Integer>> points = new HashMap<>();
+			for (RewardPointsKey key : keys) {
+				points.put(key, CompletableFuture.completedFuture(1 + Math.floorMod(key.hashCode(), 1000)));
+			}
+			return points;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.openclassrooms.tourguide.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserReward;
+
+/**
+ * Rewards added to the same user from several threads, as the tracker and user requests do. Each iteration
+ * starts with a user without rewards: the first adds insert, the following ones go through the duplicate
+ * detection every reward evaluation relies on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class UserRewardBenchmark {
+	private static final int ATTRACTIONS = 26;
+
+	private List<UserReward> rewards;
+	private User user;
+
+	@Setup
+	public void setUp() {
+		StandIns.ZeroLatencyGpsUtil gpsUtil = new StandIns.ZeroLatencyGpsUtil(ATTRACTIONS, 1);
+		UUID userId = UUID.randomUUID();
+		rewards = new ArrayList<>(ATTRACTIONS);
+		for (Attraction attraction : gpsUtil.getAttractions()) {
+			rewards.add(new UserReward(new VisitedLocation(userId, attraction, new Date()), attraction, 100));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void newUser() {
+		user = new User(UUID.randomUUID(), "bench", "000", "bench@tourGuide.com");
+	}
+
+	@Benchmark
+	public boolean addUserReward(Cursor cursor) {
+		return user.addUserReward(rewards.get(cursor.next()));
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int next;
+
+		int next() {
+			int current = next;
+			next = current + 1 == ATTRACTIONS ? 0 : current + 1;
+			return current;
+		}
+	}
+}
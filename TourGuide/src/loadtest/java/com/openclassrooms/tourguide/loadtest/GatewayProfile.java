@@ -0,0 +1,51 @@
+package com.openclassrooms.tourguide.loadtest;
+
+import com.openclassrooms.tourguide.simulator.LatencyProfile;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
+
+/**
+ * Behaviour of the simulated GpsUtil and RewardCentral during a scenario.
+ *
+ * @param name the name of the profile in the reports
+ * @param gps the behaviour of GpsUtil
+ * @param rewards the behaviour of RewardCentral
+ */
+record GatewayProfile(String name, SimulatorSettings gps, SimulatorSettings rewards) {
+
+	/**
+	 * Latencies and rate limit of the vendor libraries.
+	 */
+	static final GatewayProfile VENDOR = new GatewayProfile("vendor", SimulatorSettings.GPS_UTIL,
+			SimulatorSettings.REWARD_CENTRAL);
+	/**
+	 * Immediate answers, so that only the code of the application is measured.
+	 */
+	static final GatewayProfile INSTANT = new GatewayProfile("instant", SimulatorSettings.INSTANT,
+			SimulatorSettings.INSTANT);
+	/**
+	 * Log-normal latencies around the vendor medians, with rare spikes of several times the median.
+	 */
+	static final GatewayProfile TAIL = new GatewayProfile("tail",
+			new SimulatorSettings(LatencyProfile.parse("lognormal:65ms:0.3,spike:0.01:500ms"), 1000, 0),
+			new SimulatorSettings(LatencyProfile.parse("lognormal:100ms:0.8,spike:0.01:3s"), 0, 0));
+
+	/**
+	 * @param name vendor, instant or tail
+	 * @return the built-in profile of that name
+	 */
+	static GatewayProfile named(String name) {
+		return switch (name.trim()) {
+			case "vendor" -> VENDOR;
+			case "instant" -> INSTANT;
+			case "tail" -> TAIL;
+			default -> throw new IllegalArgumentException("Unknown gateway profile: " + name);
+		};
+	}
+
+	/**
+	 * @return the permits per second of the GPS gateway: those of GpsUtil, or virtually unlimited
+	 */
+	double gpsPermitsPerSecond() {
+		return gps.permitsPerSecond() > 0 ? gps.permitsPerSecond() : 1_000_000_000;
+	}
+}
@@ -0,0 +1,194 @@
+package com.openclassrooms.tourguide.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.attraction.AttractionCatalog;
+import com.openclassrooms.tourguide.cache.ExpiringCache;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.gateway.RewardCentralGateway;
+import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.loadtest.StageRecorder.TimedGpsUtil;
+import com.openclassrooms.tourguide.loadtest.StageRecorder.TimedRewardCentral;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.service.TripDealService;
+import com.openclassrooms.tourguide.simulator.SimulatedTripPricer;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.InMemoryUserRepository;
+import com.openclassrooms.tourguide.user.User;
+
+/**
+ * Load test sweeping user counts, executor sizes and gateway profiles.
+ *
+ * Each scenario builds a fresh {@link TourGuideService} over simulated, seeded gateways, tracks every user once
+ * through the tracking pipeline, then has every user visit an attraction and evaluates their rewards, like
+ * {@code TestPerformance}. The throughput of both passes and the latency percentiles of each {@link Stage} are
+ * written to {@code results.csv} and {@code results.json} after every scenario, so an interrupted sweep keeps
+ * the scenarios already run.
+ *
+ * Options, each followed by its value: {@code --users} and {@code --concurrency}, comma separated counts,
+ * {@code --profiles}, comma separated names of {@link GatewayProfile}s, {@code --seed} and {@code --output},
+ * the directory of the reports.
+ */
+public final class LoadTest {
+	private static final int QUEUE_CAPACITY = 10_000;
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = parseOptions(args);
+		int[] userCounts = parseCounts(options.getOrDefault("users", "1000,10000,100000,1000000"));
+		int[] concurrencyLevels = parseCounts(options.getOrDefault("concurrency", "100,200"));
+		List<GatewayProfile> profiles = Arrays.stream(options.getOrDefault("profiles", "instant,tail,vendor").split(","))
+				.map(GatewayProfile::named)
+				.toList();
+		long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+		Path output = Path.of(options.getOrDefault("output", "target/load-test"));
+		Files.createDirectories(output);
+
+		List<Attraction> attractions = new GpsUtil().getAttractions();
+		List<ScenarioResult> results = new ArrayList<>();
+		for (GatewayProfile profile : profiles) {
+			for (int concurrency : concurrencyLevels) {
+				for (int users : userCounts) {
+					ScenarioResult result = run(profile, users, concurrency, attractions, seed);
+					System.out.printf("%s, %d users, concurrency %d: tracked %.1f users/s, rewarded %.1f users/s, "
+							+ "%d failures%n", profile.name(), users, concurrency, result.trackUsersPerSecond(),
+							result.rewardUsersPerSecond(), result.failures());
+					results.add(result);
+					Reports.writeCsv(results, output.resolve("results.csv"));
+					Reports.writeJson(results, output.resolve("results.json"));
+				}
+			}
+		}
+		System.out.println("Load test reports written to " + output.toAbsolutePath());
+	}
+
+	static ScenarioResult run(GatewayProfile profile, int users, int concurrency, List<Attraction> attractions,
+			long seed) {
+		StageRecorder recorder = new StageRecorder();
+		TimedGpsUtil gpsUtil = new TimedGpsUtil(seed, profile.gps(), attractions, recorder);
+		BoundedExecutor rewardPointsExecutor = new BoundedExecutor(ExecutionMode.PLATFORM, "reward-points", concurrency,
+				QUEUE_CAPACITY, SaturationPolicy.ABORT);
+		BoundedExecutor rewardsExecutor = new BoundedExecutor("rewards", concurrency, QUEUE_CAPACITY);
+		BoundedExecutor trackingExecutor = new BoundedExecutor("tracking", concurrency, QUEUE_CAPACITY);
+		BoundedExecutor requestExecutor = new BoundedExecutor("requests", concurrency, QUEUE_CAPACITY);
+		AttractionCatalog catalog = new AttractionCatalog(gpsUtil);
+		RewardCentralGateway rewardPointsGateway = new RewardCentralGateway(
+				new TimedRewardCentral(seed, profile.rewards(), recorder), rewardPointsExecutor);
+		RewardsService rewardsService = new RewardsService(catalog, rewardPointsGateway, rewardsExecutor,
+				new ExpiringCache<>(Math.max(users, 1), Duration.ofHours(1)));
+		GpsGateway gpsGateway = new GpsGateway(gpsUtil, profile.gpsPermitsPerSecond());
+		TrackingPipeline pipeline = new TrackingPipeline(gpsGateway, rewardsService, trackingExecutor);
+		InternalTestHelper.setInternalUserNumber(users);
+		TourGuideService tourGuideService = new TourGuideService(gpsGateway, rewardsService,
+				new InMemoryUserRepository(), pipeline, requestExecutor, TrackerSettings.DEFAULT,
+				new TripDealService(new SimulatedTripPricer(seed, SimulatorSettings.INSTANT), requestExecutor));
+		// the passes below are measured alone
+		tourGuideService.tracker.stopTracking();
+		tourGuideService.getInternalUsersLoaded().join();
+		List<User> allUsers = tourGuideService.getAllUsers();
+		AtomicLong failures = new AtomicLong();
+		try {
+			long trackNanos = trackAll(tourGuideService, allUsers, recorder, failures);
+			long rewardNanos = rewardAll(rewardsService, allUsers, attractions.get(0), recorder, failures);
+			double trackSeconds = trackNanos / (double) TimeUnit.SECONDS.toNanos(1);
+			double rewardSeconds = rewardNanos / (double) TimeUnit.SECONDS.toNanos(1);
+			return new ScenarioResult(profile.name(), users, concurrency, trackSeconds, users / trackSeconds,
+					rewardSeconds, users / rewardSeconds, failures.get(), ScenarioResult.summarize(recorder));
+		} finally {
+			pipeline.close();
+			rewardPointsGateway.close();
+			catalog.close();
+			trackingExecutor.shutdown();
+			rewardsExecutor.shutdown();
+			rewardPointsExecutor.shutdown();
+			requestExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Tracks every user once through the tracking pipeline.
+	 *
+	 * @return the time taken, in nanoseconds
+	 */
+	private static long trackAll(TourGuideService tourGuideService, List<User> users, StageRecorder recorder,
+			AtomicLong failures) {
+		long start = System.nanoTime();
+		List<CompletableFuture<VisitedLocation>> results = new ArrayList<>(users.size());
+		for (User user : users) {
+			long submitted = System.nanoTime();
+			results.add(tourGuideService.trackUserLocationInBackground(user).whenComplete((visitedLocation, e) -> {
+				recorder.record(Stage.TRACK_USER, submitted);
+				if (e != null) {
+					failures.incrementAndGet();
+				}
+			}));
+		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Has every user visit the attraction, then evaluates their rewards on the rewards executor.
+	 *
+	 * @return the time taken by the evaluations, in nanoseconds
+	 */
+	private static long rewardAll(RewardsService rewardsService, List<User> users, Attraction attraction,
+			StageRecorder recorder, AtomicLong failures) {
+		users.forEach(user -> user.addToVisitedLocations(new VisitedLocation(user.getUserId(), attraction, new Date())));
+		long start = System.nanoTime();
+		List<CompletableFuture<Void>> results = new ArrayList<>(users.size());
+		for (User user : users) {
+			results.add(CompletableFuture.runAsync(() -> {
+				long evaluated = System.nanoTime();
+				try {
+					rewardsService.calculateRewards(user);
+				} catch (RuntimeException e) {
+					failures.incrementAndGet();
+				} finally {
+					recorder.record(Stage.REWARD_CALCULATION, evaluated);
+				}
+			}, rewardsService.getRewardsExecutor()));
+		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+		return System.nanoTime() - start;
+	}
+
+	private static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i += 2) {
+			if (!args[i].startsWith("--") || i + 1 == args.length) {
+				throw new IllegalArgumentException("Expected --<option> <value>, got " + args[i]);
+			}
+			options.put(args[i].substring(2), args[i + 1]);
+		}
+		return options;
+	}
+
+	private static int[] parseCounts(String counts) {
+		return Arrays.stream(counts.split(",")).mapToInt(count -> Integer.parseInt(count.trim())).toArray();
+	}
+}
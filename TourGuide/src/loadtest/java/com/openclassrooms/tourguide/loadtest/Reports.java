@@ -0,0 +1,43 @@
+package com.openclassrooms.tourguide.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the results of a sweep as CSV, one row per scenario and stage, and as JSON.
+ */
+final class Reports {
+	private static final String CSV_HEADER = "profile,users,concurrency,track_seconds,track_users_per_second,"
+			+ "reward_seconds,reward_users_per_second,failures,stage,count,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+	private Reports() {
+	}
+
+	static void writeCsv(List<ScenarioResult> results, Path file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file); PrintWriter csv = new PrintWriter(writer)) {
+			csv.println(CSV_HEADER);
+			for (ScenarioResult result : results) {
+				for (Map.Entry<String, ScenarioResult.StageSummary> stage : result.stages().entrySet()) {
+					ScenarioResult.StageSummary summary = stage.getValue();
+					csv.println(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.1f,%.3f,%.1f,%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+							result.profile(), result.users(), result.concurrency(), result.trackSeconds(),
+							result.trackUsersPerSecond(), result.rewardSeconds(), result.rewardUsersPerSecond(),
+							result.failures(), stage.getKey(), summary.count(), summary.mean(), summary.p50(),
+							summary.p90(), summary.p99(), summary.p999(), summary.max()));
+				}
+			}
+		}
+	}
+
+	static void writeJson(List<ScenarioResult> results, Path file) throws IOException {
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+	}
+}
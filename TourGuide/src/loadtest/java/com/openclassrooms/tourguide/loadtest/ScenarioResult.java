@@ -0,0 +1,48 @@
+package com.openclassrooms.tourguide.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measures of one scenario of the sweep.
+ *
+ * @param profile the name of the gateway profile
+ * @param users the number of users
+ * @param concurrency the size of the executors
+ * @param trackSeconds the time taken to track every user
+ * @param trackUsersPerSecond the users tracked per second
+ * @param rewardSeconds the time taken to evaluate the rewards of every user
+ * @param rewardUsersPerSecond the users evaluated per second
+ * @param failures the users whose tracking or reward evaluation failed
+ * @param stages the latency percentiles of each stage, by label
+ */
+record ScenarioResult(String profile, int users, int concurrency, double trackSeconds, double trackUsersPerSecond,
+		double rewardSeconds, double rewardUsersPerSecond, long failures, Map<String, StageSummary> stages) {
+
+	static Map<String, StageSummary> summarize(StageRecorder recorder) {
+		Map<String, StageSummary> stages = new LinkedHashMap<>();
+		for (Stage stage : Stage.values()) {
+			stages.put(stage.label(), StageSummary.of(recorder.get(stage)));
+		}
+		return stages;
+	}
+
+	/**
+	 * Latency percentiles of a stage, in milliseconds.
+	 */
+	record StageSummary(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+		private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+		static StageSummary of(Histogram histogram) {
+			return new StageSummary(histogram.getTotalCount(), histogram.getMean() / NANOS_PER_MILLI,
+					millisAt(histogram, 50), millisAt(histogram, 90), millisAt(histogram, 99),
+					millisAt(histogram, 99.9), histogram.getMaxValue() / NANOS_PER_MILLI);
+		}
+
+		private static double millisAt(Histogram histogram, double percentile) {
+			return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.openclassrooms.tourguide.loadtest;
+
+/**
+ * Stage of the work of the application whose latency is recorded.
+ */
+enum Stage {
+	/**
+	 * A call to GpsUtil for the location of a user.
+	 */
+	GPS_FETCH("gps-fetch"),
+	/**
+	 * A call to RewardCentral for the points of a user at an attraction.
+	 */
+	REWARD_POINTS("reward-points"),
+	/**
+	 * The reward evaluation of a user, reward points lookups included.
+	 */
+	REWARD_CALCULATION("reward-calculation"),
+	/**
+	 * A user going through the whole tracking pipeline, from the GPS call to the sink.
+	 */
+	TRACK_USER("track-user");
+
+	private final String label;
+
+	Stage(String label) {
+		this.label = label;
+	}
+
+	String label() {
+		return label;
+	}
+}
@@ -0,0 +1,83 @@
+package com.openclassrooms.tourguide.loadtest;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.simulator.SimulatedGpsUtil;
+import com.openclassrooms.tourguide.simulator.SimulatedRewardCentral;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
+
+/**
+ * Latency histograms of every {@link Stage} of a scenario, in nanoseconds, recorded from any thread.
+ */
+final class StageRecorder {
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Map<Stage, Histogram> histograms = new EnumMap<>(Stage.class);
+
+	StageRecorder() {
+		for (Stage stage : Stage.values()) {
+			histograms.put(stage, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+		}
+	}
+
+	void record(Stage stage, long startNanos) {
+		histograms.get(stage).recordValue(System.nanoTime() - startNanos);
+	}
+
+	Histogram get(Stage stage) {
+		return histograms.get(stage);
+	}
+
+	/**
+	 * Simulated GpsUtil recording the latency of its location lookups.
+	 */
+	static final class TimedGpsUtil extends SimulatedGpsUtil {
+		private final StageRecorder recorder;
+
+		TimedGpsUtil(long seed, SimulatorSettings settings, List<Attraction> attractions, StageRecorder recorder) {
+			super(seed, settings, attractions);
+			this.recorder = recorder;
+		}
+
+		@Override
+		public VisitedLocation getUserLocation(UUID userId) {
+			long start = System.nanoTime();
+			try {
+				return super.getUserLocation(userId);
+			} finally {
+				recorder.record(Stage.GPS_FETCH, start);
+			}
+		}
+	}
+
+	/**
+	 * Simulated RewardCentral recording the latency of its reward points lookups.
+	 */
+	static final class TimedRewardCentral extends SimulatedRewardCentral {
+		private final StageRecorder recorder;
+
+		TimedRewardCentral(long seed, SimulatorSettings settings, StageRecorder recorder) {
+			super(seed, settings);
+			this.recorder = recorder;
+		}
+
+		@Override
+		public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+			long start = System.nanoTime();
+			try {
+				return super.getAttractionRewardPoints(attractionId, userId);
+			} finally {
+				recorder.record(Stage.REWARD_POINTS, start);
+			}
+		}
+	}
+}
@@ -1,20 +0,0 @@
-package com.openclassrooms.tourguide;
-
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.ToString;
-
-@Getter
-@AllArgsConstructor
-@NoArgsConstructor
-@ToString
-public class NearbyAttraction {
-    private String attractionName;
-    private double attractionLatitude;
-    private double attractionLongitude;
-    private double userLatitude;
-    private double userLongitude;
-    private double distance;
-    private int rewardPoints;
-}
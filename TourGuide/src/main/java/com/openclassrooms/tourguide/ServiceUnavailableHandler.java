@@ -0,0 +1,29 @@
+package com.openclassrooms.tourguide;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers the requests rejected by a saturated executor with 503 Service Unavailable, so that clients back off
+ * instead of the overflow running on the servlet threads.
+ */
+@RestControllerAdvice
+public class ServiceUnavailableHandler {
+	private static final String RETRY_AFTER_SECONDS = "1";
+	private final Logger logger = LoggerFactory.getLogger(ServiceUnavailableHandler.class);
+
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<String> handleRejectedRequest(RejectedExecutionException e) {
+		logger.debug("Request rejected: {}", e.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+				.body(e.getMessage());
+	}
+}
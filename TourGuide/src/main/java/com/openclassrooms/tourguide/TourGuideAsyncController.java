@@ -0,0 +1,65 @@
+package com.openclassrooms.tourguide;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.service.NearbyAttraction;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserReward;
+
+import tripPricer.Provider;
+
+/**
+ * Non-blocking variant of {@link TourGuideController}.
+ *
+ * Handlers return a {@link CompletableFuture}: the servlet thread is released as soon as the gateway calls
+ * are started, and the response is written once they complete on the request executor. The servlet
+ * container's thread pool is therefore no longer the ceiling on concurrent clients. Once the request executor
+ * is saturated, the calls it rejects are answered with 503 by the {@link ServiceUnavailableHandler} rather than
+ * run on the servlet thread.
+ */
+@RestController
+@RequestMapping("/async")
+public class TourGuideAsyncController {
+
+	@Autowired
+	TourGuideService tourGuideService;
+
+	@Value("${tourguide.nearby-attractions.reward-points-deadline:1s}")
+	Duration rewardPointsDeadline;
+
+	@RequestMapping("/getLocation")
+	public CompletableFuture<VisitedLocation> getLocation(@RequestParam String userName) {
+		return tourGuideService.getUserLocationAsync(getUser(userName));
+	}
+
+	@RequestMapping("/getNearbyAttractions")
+	public CompletableFuture<List<NearbyAttraction>> getNearbyAttractions(@RequestParam String userName) {
+		return tourGuideService.getNearbyAttractionsAsync(getUser(userName), rewardPointsDeadline);
+	}
+
+	@RequestMapping("/getRewards")
+	public CompletableFuture<List<UserReward>> getRewards(@RequestParam String userName) {
+		return CompletableFuture.completedFuture(tourGuideService.getUserRewards(getUser(userName)));
+	}
+
+	@RequestMapping("/getTripDeals")
+	public CompletableFuture<List<Provider>> getTripDeals(@RequestParam String userName) {
+		return tourGuideService.getTripDealsAsync(getUser(userName));
+	}
+
+	private User getUser(String userName) {
+		return tourGuideService.getUser(userName);
+	}
+
+}
@@ -1,16 +1,17 @@
 package com.openclassrooms.tourguide;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import gpsUtil.location.Attraction;
 import gpsUtil.location.VisitedLocation;
 
+import com.openclassrooms.tourguide.service.NearbyAttraction;
 import com.openclassrooms.tourguide.service.TourGuideService;
 import com.openclassrooms.tourguide.user.User;
 import com.openclassrooms.tourguide.user.UserReward;
@@ -26,6 +27,9 @@ public class TourGuideController {
 
 	@Autowired
 	TourGuideService tourGuideService;
+
+	@Value("${tourguide.nearby-attractions.reward-points-deadline:1s}")
+	Duration rewardPointsDeadline;
 	
     @RequestMapping("/")
     public String index() {
@@ -39,15 +43,7 @@ public class TourGuideController {
 
     @RequestMapping("/getNearbyAttractions") 
     public List<NearbyAttraction> getNearbyAttractions(@RequestParam String userName) {
-        VisitedLocation visitedLocation = tourGuideService.getUserLocation(getUser(userName));
-        List<Attraction> attractions = tourGuideService.getNearByAttractions(visitedLocation);
-        List<NearbyAttraction> result = attractions.stream().map(a -> {
-            double distance = tourGuideService.getDistance(a, visitedLocation.location);
-            int reward = tourGuideService.getAttractionRewardPoints(a, getUser(userName));
-            return new NearbyAttraction(a.attractionName, a.latitude, a.longitude,
-                    visitedLocation.location.latitude, visitedLocation.location.longitude,
-                    distance, reward);
-        }).collect(Collectors.toList());
+        List<NearbyAttraction> result = tourGuideService.getNearbyAttractions(getUser(userName), rewardPointsDeadline);
         logger.info("Attractions trouvées: {}", result.size());
         if (!result.isEmpty()) {
             logger.info("Premier élément: {}", result.get(0));
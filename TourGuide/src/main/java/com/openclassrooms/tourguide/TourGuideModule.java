@@ -1,28 +1,193 @@
 package com.openclassrooms.tourguide;
 
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import gpsUtil.GpsUtil;
 import rewardCentral.RewardCentral;
+import tripPricer.Provider;
+import tripPricer.TripPricer;
+import com.openclassrooms.tourguide.attraction.AttractionCatalog;
+import com.openclassrooms.tourguide.cache.ExpiringCache;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.gateway.GatewayMode;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.gateway.RewardCentralGateway;
+import com.openclassrooms.tourguide.gateway.RewardPointsGateway;
+import com.openclassrooms.tourguide.gateway.RewardPointsKey;
+import com.openclassrooms.tourguide.metrics.MeteredGpsUtil;
+import com.openclassrooms.tourguide.metrics.MeteredRewardCentral;
+import com.openclassrooms.tourguide.metrics.MeteredTripPricer;
+import com.openclassrooms.tourguide.metrics.TourGuideMetrics;
 import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.service.TripDealKey;
+import com.openclassrooms.tourguide.simulator.LatencyProfile;
+import com.openclassrooms.tourguide.simulator.SimulatedGpsUtil;
+import com.openclassrooms.tourguide.simulator.SimulatedRewardCentral;
+import com.openclassrooms.tourguide.simulator.SimulatedTripPricer;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
+import com.openclassrooms.tourguide.tracker.CadenceSettings;
+import com.openclassrooms.tourguide.tracker.OverrunPolicy;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.HistorySettings;
 
 @Configuration
 public class TourGuideModule {
 	
 	@Bean
-	public GpsUtil getGpsUtil() {
-		return new GpsUtil();
+	public GpsUtil getGpsUtil(@Value("${tourguide.gateway.mode:VENDOR}") GatewayMode mode,
+			@Value("${tourguide.simulator.seed:42}") long seed,
+			@Value("${tourguide.simulator.gps.latency:uniform:30ms:100ms}") String latency,
+			@Value("${tourguide.simulator.gps.permits-per-second:1000}") double permitsPerSecond,
+			@Value("${tourguide.simulator.gps.error-rate:0}") double errorRate,
+			MeterRegistry meterRegistry) {
+		GpsUtil gpsUtil = mode == GatewayMode.SIMULATED
+				? new SimulatedGpsUtil(seed, simulatorSettings(latency, permitsPerSecond, errorRate))
+				: new GpsUtil();
+		return new MeteredGpsUtil(gpsUtil, meterRegistry);
 	}
 	
 	@Bean
-	public RewardsService getRewardsService() {
-		return new RewardsService(getGpsUtil(), getRewardCentral());
+	public GpsGateway getGpsGateway(GpsUtil gpsUtil,
+			@Value("${tourguide.gps.permits-per-second:1000}") double permitsPerSecond,
+			@Value("${tourguide.gps.max-background-wait:1s}") Duration maxBackgroundWait) {
+		return new GpsGateway(gpsUtil, permitsPerSecond, maxBackgroundWait);
 	}
-	
+
+	@Bean(destroyMethod = "close")
+	public AttractionCatalog getAttractionCatalog(GpsUtil gpsUtil,
+			@Value("${tourguide.attractions.refresh-interval:1h}") Duration refreshInterval) {
+		return new AttractionCatalog(gpsUtil, refreshInterval);
+	}
+
 	@Bean
-	public RewardCentral getRewardCentral() {
-		return new RewardCentral();
+	public RewardCentral getRewardCentral(@Value("${tourguide.gateway.mode:VENDOR}") GatewayMode mode,
+			@Value("${tourguide.simulator.seed:42}") long seed,
+			@Value("${tourguide.simulator.rewards.latency:uniform:1ms:1000ms}") String latency,
+			@Value("${tourguide.simulator.rewards.permits-per-second:0}") double permitsPerSecond,
+			@Value("${tourguide.simulator.rewards.error-rate:0}") double errorRate,
+			MeterRegistry meterRegistry) {
+		RewardCentral rewardCentral = mode == GatewayMode.SIMULATED
+				? new SimulatedRewardCentral(seed, simulatorSettings(latency, permitsPerSecond, errorRate))
+				: new RewardCentral();
+		return new MeteredRewardCentral(rewardCentral, meterRegistry);
+	}
+
+	@Bean(destroyMethod = "close")
+	public RewardPointsGateway getRewardPointsGateway(RewardCentral rewardCentral,
+			@Qualifier("rewardPointsExecutor") BoundedExecutor rewardPointsExecutor,
+			@Value("${tourguide.reward-points.batch-window:2ms}") Duration batchWindow,
+			@Value("${tourguide.reward-points.max-batch-size:256}") int maxBatchSize) {
+		return new RewardCentralGateway(rewardCentral, rewardPointsExecutor, batchWindow, maxBatchSize);
+	}
+
+	@Bean
+	public ExpiringCache<RewardPointsKey, Integer> getRewardPointsCache(
+			@Value("${tourguide.reward-points.cache.maximum-size:100000}") int maximumSize,
+			@Value("${tourguide.reward-points.cache.time-to-live:1h}") Duration timeToLive) {
+		return new ExpiringCache<>(maximumSize, timeToLive);
+	}
+
+	@Bean
+	public TripPricer getTripPricer(@Value("${tourguide.gateway.mode:VENDOR}") GatewayMode mode,
+			@Value("${tourguide.simulator.seed:42}") long seed,
+			@Value("${tourguide.simulator.trip-pricer.latency:uniform:1ms:50ms}") String latency,
+			@Value("${tourguide.simulator.trip-pricer.permits-per-second:0}") double permitsPerSecond,
+			@Value("${tourguide.simulator.trip-pricer.error-rate:0}") double errorRate,
+			MeterRegistry meterRegistry) {
+		TripPricer tripPricer = mode == GatewayMode.SIMULATED
+				? new SimulatedTripPricer(seed, simulatorSettings(latency, permitsPerSecond, errorRate))
+				: new TripPricer();
+		return new MeteredTripPricer(tripPricer, meterRegistry);
+	}
+
+	@Bean
+	public ExpiringCache<TripDealKey, List<Provider>> getTripDealCache(
+			@Value("${tourguide.trip-deals.cache.maximum-size:100000}") int maximumSize,
+			@Value("${tourguide.trip-deals.cache.time-to-live:1h}") Duration timeToLive) {
+		return new ExpiringCache<>(maximumSize, timeToLive);
+	}
+
+	@Bean(name = "rewardsExecutor", destroyMethod = "shutdown")
+	public BoundedExecutor getRewardsExecutor(@Value("${tourguide.execution.mode:PLATFORM}") ExecutionMode mode,
+			@Value("${tourguide.rewards.pool-size:100}") int poolSize,
+			@Value("${tourguide.rewards.queue-capacity:10000}") int queueCapacity) {
+		return new BoundedExecutor(mode, "rewards", poolSize, queueCapacity);
+	}
+
+	@Bean(name = "rewardPointsExecutor", destroyMethod = "shutdown")
+	public BoundedExecutor getRewardPointsExecutor(@Value("${tourguide.execution.mode:PLATFORM}") ExecutionMode mode,
+			@Value("${tourguide.reward-points.pool-size:100}") int poolSize,
+			@Value("${tourguide.reward-points.queue-capacity:10000}") int queueCapacity) {
+		return new BoundedExecutor(mode, "reward-points", poolSize, queueCapacity, SaturationPolicy.ABORT);
+	}
+
+	@Bean(name = "requestExecutor", destroyMethod = "shutdown")
+	public BoundedExecutor getRequestExecutor(@Value("${tourguide.execution.mode:PLATFORM}") ExecutionMode mode,
+			@Value("${tourguide.requests.pool-size:200}") int poolSize,
+			@Value("${tourguide.requests.queue-capacity:1000}") int queueCapacity) {
+		return new BoundedExecutor(mode, "requests", poolSize, queueCapacity, SaturationPolicy.ABORT);
+	}
+
+	@Bean(name = "tripDealPrefetchExecutor", destroyMethod = "shutdown")
+	public BoundedExecutor getTripDealPrefetchExecutor(
+			@Value("${tourguide.execution.mode:PLATFORM}") ExecutionMode mode,
+			@Value("${tourguide.trip-deals.prefetch.pool-size:4}") int poolSize,
+			@Value("${tourguide.trip-deals.prefetch.queue-capacity:1000}") int queueCapacity) {
+		return new BoundedExecutor(mode, "trip-deal-prefetch", poolSize, queueCapacity, SaturationPolicy.DISCARD);
+	}
+
+	@Bean(name = "trackingExecutor", destroyMethod = "shutdown")
+	public BoundedExecutor getTrackingExecutor(@Value("${tourguide.execution.mode:PLATFORM}") ExecutionMode mode,
+			@Value("${tourguide.tracking.pool-size:100}") int poolSize,
+			@Value("${tourguide.tracking.queue-capacity:10000}") int queueCapacity) {
+		return new BoundedExecutor(mode, "tracking", poolSize, queueCapacity);
+	}
+
+	@Bean(destroyMethod = "close")
+	public TrackingPipeline getTrackingPipeline(GpsGateway gpsGateway, RewardsService rewardsService,
+			@Qualifier("trackingExecutor") BoundedExecutor trackingExecutor,
+			@Value("${tourguide.tracking.sink-queue-capacity:10000}") int sinkQueueCapacity) {
+		return new TrackingPipeline(gpsGateway, rewardsService, trackingExecutor, rewardsService.getRewardsExecutor(),
+				sinkQueueCapacity);
+	}
+
+	@Bean
+	public TrackerSettings getTrackerSettings(@Value("${tourguide.tracker.interval:5m}") Duration interval,
+			@Value("${tourguide.tracker.overrun-policy:COALESCE}") OverrunPolicy overrunPolicy,
+			@Value("${tourguide.tracker.slots:300}") int slots,
+			@Value("${tourguide.tracker.fast-interval:150s}") Duration fastInterval,
+			@Value("${tourguide.tracker.max-interval:40m}") Duration maxInterval,
+			@Value("${tourguide.tracker.stationary-radius-miles:0.1}") double stationaryRadiusMiles,
+			@Value("${tourguide.tracker.stationary-locations:3}") int stationaryLocations) {
+		return new TrackerSettings(interval, overrunPolicy, slots,
+				new CadenceSettings(fastInterval, maxInterval, stationaryRadiusMiles, stationaryLocations));
+	}
+
+	@Bean
+	public HistorySettings getHistorySettings(@Value("${tourguide.history.window:288}") int window,
+			@Value("${tourguide.history.archive-size:2016}") int archiveSize) {
+		return new HistorySettings(window, archiveSize);
+	}
+
+	@Bean
+	public TourGuideMetrics getTourGuideMetrics(TourGuideService tourGuideService, GpsGateway gpsGateway,
+			List<BoundedExecutor> executors) {
+		return new TourGuideMetrics(tourGuideService, gpsGateway, executors);
+	}
+
+	private static SimulatorSettings simulatorSettings(String latency, double permitsPerSecond, double errorRate) {
+		return new SimulatorSettings(LatencyProfile.parse(latency), permitsPerSecond, errorRate);
 	}
-	
 }
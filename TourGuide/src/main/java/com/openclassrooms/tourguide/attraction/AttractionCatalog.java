@@ -0,0 +1,144 @@
+package com.openclassrooms.tourguide.attraction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+
+/**
+ * In-memory catalogue of the attractions known by {@link GpsUtil}.
+ *
+ * The attractions are loaded once and held as an immutable {@link AttractionIndex}, so reading them costs
+ * neither a GpsUtil rate limiter permit nor any allocation. When a refresh interval is given, the list is
+ * reloaded in the background and the new snapshot replaces the current one atomically. Attractions that did
+ * not change keep their instance, and therefore their identifier, across refreshes.
+ */
+public class AttractionCatalog implements AutoCloseable {
+	private final Logger logger = LoggerFactory.getLogger(AttractionCatalog.class);
+	private final GpsUtil gpsUtil;
+	private final AtomicReference<AttractionIndex> snapshot = new AtomicReference<>();
+	private final AtomicLong version = new AtomicLong();
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Creates a catalogue loaded once, without background refresh.
+	 *
+	 * @param gpsUtil the source of the attractions
+	 */
+	public AttractionCatalog(GpsUtil gpsUtil) {
+		this(gpsUtil, Duration.ZERO);
+	}
+
+	/**
+	 * Creates a catalogue refreshed in the background.
+	 *
+	 * @param gpsUtil the source of the attractions
+	 * @param refreshInterval the delay between two refreshes, zero or negative to disable them
+	 */
+	public AttractionCatalog(GpsUtil gpsUtil, Duration refreshInterval) {
+		this.gpsUtil = gpsUtil;
+		this.snapshot.set(new AttractionIndex(gpsUtil.getAttractions()));
+		if (refreshInterval.isZero() || refreshInterval.isNegative()) {
+			this.scheduler = null;
+		} else {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "attraction-catalog-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long intervalMillis = refreshInterval.toMillis();
+			this.scheduler.scheduleWithFixedDelay(this::refreshQuietly, intervalMillis, intervalMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * @return the current attractions, as an immutable list
+	 */
+	public List<Attraction> getAttractions() {
+		return snapshot.get().getAttractions();
+	}
+
+	/**
+	 * @return the spatial index of the current attractions
+	 */
+	public AttractionIndex getIndex() {
+		return snapshot.get();
+	}
+
+	/**
+	 * @return the number of snapshots published since the catalog has been loaded
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Reloads the attractions from {@link GpsUtil} and swaps the snapshot if anything changed.
+	 *
+	 * @return true if a new snapshot has been published
+	 */
+	public boolean refresh() {
+		AttractionIndex current = snapshot.get();
+		Map<String, Attraction> previous = new HashMap<>();
+		current.getAttractions().forEach(a -> previous.put(a.attractionName, a));
+
+		List<Attraction> fresh = gpsUtil.getAttractions();
+		List<Attraction> merged = new ArrayList<>(fresh.size());
+		boolean changed = fresh.size() != previous.size();
+		for (Attraction attraction : fresh) {
+			Attraction known = previous.get(attraction.attractionName);
+			if (sameAttraction(known, attraction)) {
+				merged.add(known);
+			} else {
+				merged.add(attraction);
+				changed = true;
+			}
+		}
+		if (!changed || !snapshot.compareAndSet(current, new AttractionIndex(merged))) {
+			return false;
+		}
+		version.incrementAndGet();
+		logger.debug("Attraction catalog refreshed with {} attractions", merged.size());
+		return true;
+	}
+
+	/**
+	 * Stops the background refresh.
+	 */
+	@Override
+	public void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (RuntimeException e) {
+			logger.warn("Attraction catalog refresh failed, keeping the current snapshot", e);
+		}
+	}
+
+	private static boolean sameAttraction(Attraction known, Attraction attraction) {
+		return known != null
+				&& known.latitude == attraction.latitude
+				&& known.longitude == attraction.longitude
+				&& Objects.equals(known.city, attraction.city)
+				&& Objects.equals(known.state, attraction.state);
+	}
+}
@@ -0,0 +1,12 @@
+package com.openclassrooms.tourguide.attraction;
+
+import gpsUtil.location.Attraction;
+
+/**
+ * An attraction found by a search of the {@link AttractionIndex}, with its distance to the searched location.
+ *
+ * @param attraction the attraction
+ * @param miles the great-circle distance in statute miles
+ */
+public record AttractionDistance(Attraction attraction, double miles) {
+}
@@ -0,0 +1,390 @@
+package com.openclassrooms.tourguide.attraction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+
+import com.openclassrooms.tourguide.geo.GreatCircle;
+import com.openclassrooms.tourguide.geo.Radius;
+
+/**
+ * Immutable spatial index over a list of attractions.
+ *
+ * Attractions are projected on the unit sphere and stored in a 3-d tree. On the sphere, the straight-line
+ * (chord) distance between two points grows with their great-circle distance, so radius and nearest-neighbour
+ * queries can prune whole subtrees by comparing squared chord lengths, without any trigonometric call per
+ * attraction. Both queries run in sub-linear time instead of scanning every attraction. The unit vectors of
+ * the attractions are computed once, when the index is built, and also serve the proximity checks of a single
+ * attraction, see {@link #isWithin(Attraction, Location, Radius)}.
+ */
+public class AttractionIndex {
+	private final List<Attraction> attractions;
+	// tree nodes, in implicit layout: the node of range [lo, hi) is stored at (lo + hi) / 2
+	private final int[] nodes;
+	private final double[] xs;
+	private final double[] ys;
+	private final double[] zs;
+	private final byte[] axes;
+	// tree node of each attraction, by identifier
+	private final Map<UUID, Integer> nodeOf;
+
+	/**
+	 * Builds the index.
+	 *
+	 * @param attractions the attractions to index
+	 */
+	public AttractionIndex(List<Attraction> attractions) {
+		this.attractions = List.copyOf(attractions);
+		int size = this.attractions.size();
+		this.nodes = new int[size];
+		this.xs = new double[size];
+		this.ys = new double[size];
+		this.zs = new double[size];
+		this.axes = new byte[size];
+
+		double[][] points = new double[size][];
+		for (int i = 0; i < size; i++) {
+			nodes[i] = i;
+			points[i] = toUnitVector(this.attractions.get(i));
+		}
+		build(points, 0, size);
+		Map<UUID, Integer> nodeOf = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			double[] point = points[nodes[i]];
+			xs[i] = point[0];
+			ys[i] = point[1];
+			zs[i] = point[2];
+			nodeOf.put(this.attractions.get(nodes[i]).attractionId, i);
+		}
+		this.nodeOf = Map.copyOf(nodeOf);
+	}
+
+	/**
+	 * @return the indexed attractions, in their original order
+	 */
+	public List<Attraction> getAttractions() {
+		return attractions;
+	}
+
+	public int size() {
+		return attractions.size();
+	}
+
+	/**
+	 * Finds the attractions within the given great-circle distance of a location.
+	 *
+	 * @param location the center of the search
+	 * @param miles the search radius in statute miles
+	 * @return the matching attractions, in their original order
+	 */
+	public List<Attraction> withinDistance(Location location, double miles) {
+		return withinDistance(location, Radius.ofMiles(miles));
+	}
+
+	/**
+	 * Finds the attractions within the given radius of a location.
+	 *
+	 * @param location the center of the search
+	 * @param radius the search radius
+	 * @return the matching attractions, in their original order
+	 */
+	public List<Attraction> withinDistance(Location location, Radius radius) {
+		if (radius.chordSquared() >= GreatCircle.MAX_CHORD_SQUARED) {
+			return attractions;
+		}
+		Matches matches = new Matches();
+		visitWithinDistance(location, radius, matches);
+		return matches.toList();
+	}
+
+	/**
+	 * Visits the attractions within the given great-circle distance of a location, in no particular order.
+	 * Nothing is allocated: this is the variant for the hot paths, which only look at the matches.
+	 *
+	 * @param location the center of the search
+	 * @param radius the search radius
+	 * @param visitor called with each matching attraction, until it returns false
+	 * @return false if the visitor stopped the search
+	 */
+	public boolean visitWithinDistance(Location location, Radius radius, Visitor visitor) {
+		double lat = Math.toRadians(location.latitude);
+		double lon = Math.toRadians(location.longitude);
+		double cosLat = Math.cos(lat);
+		return visitWithin(cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat), radius.chordSquared(),
+				0, attractions.size(), visitor);
+	}
+
+	/**
+	 * Checks whether an attraction is within a radius of a location. The unit vector of an indexed attraction
+	 * comes from the index, so the check costs the conversion of the location and a squared distance; other
+	 * attractions fall back to {@link GreatCircle#isWithin(Location, Location, Radius)}.
+	 *
+	 * @param attraction the attraction
+	 * @param location the location
+	 * @param radius the radius
+	 * @return true if the great-circle distance between the attraction and the location is at most the radius
+	 */
+	public boolean isWithin(Attraction attraction, Location location, Radius radius) {
+		Integer node = nodeOf.get(attraction.attractionId);
+		if (node == null || attractions.get(nodes[node]) != attraction) {
+			return GreatCircle.isWithin(attraction, location, radius);
+		}
+		double lat = Math.toRadians(location.latitude);
+		double lon = Math.toRadians(location.longitude);
+		double cosLat = Math.cos(lat);
+		double dx = cosLat * Math.cos(lon) - xs[node];
+		double dy = cosLat * Math.sin(lon) - ys[node];
+		double dz = Math.sin(lat) - zs[node];
+		return dx * dx + dy * dy + dz * dz <= radius.chordSquared();
+	}
+
+	/**
+	 * Finds the attractions closest to a location.
+	 *
+	 * @param location the center of the search
+	 * @param k the maximum number of attractions to return
+	 * @return up to {@code k} attractions, closest first
+	 */
+	public List<Attraction> nearest(Location location, int k) {
+		Candidates candidates = searchNearest(location, k);
+		List<Attraction> result = new ArrayList<>(candidates.size);
+		for (int i = 0; i < candidates.size; i++) {
+			result.add(attractions.get(candidates.ids[i]));
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the attractions closest to a location, with their distance. The distances come from the search
+	 * itself rather than from a new computation per attraction.
+	 *
+	 * @param location the center of the search
+	 * @param k the maximum number of attractions to return
+	 * @return up to {@code k} attractions, closest first
+	 */
+	public List<AttractionDistance> nearestWithDistance(Location location, int k) {
+		Candidates candidates = searchNearest(location, k);
+		List<AttractionDistance> result = new ArrayList<>(candidates.size);
+		for (int i = 0; i < candidates.size; i++) {
+			result.add(new AttractionDistance(attractions.get(candidates.ids[i]),
+					GreatCircle.milesOf(candidates.distances[i])));
+		}
+		return result;
+	}
+
+	private Candidates searchNearest(Location location, int k) {
+		Candidates candidates = new Candidates(Math.max(0, Math.min(k, attractions.size())));
+		if (candidates.ids.length > 0) {
+			searchNearest(toUnitVector(location), 0, attractions.size(), candidates);
+		}
+		return candidates;
+	}
+
+	private void build(double[][] points, int lo, int hi) {
+		if (hi - lo <= 0) {
+			return;
+		}
+		int axis = widestAxis(points, lo, hi);
+		int mid = (lo + hi) >>> 1;
+		select(points, lo, hi - 1, mid, axis);
+		axes[mid] = (byte) axis;
+		build(points, lo, mid);
+		build(points, mid + 1, hi);
+	}
+
+	private int widestAxis(double[][] points, int lo, int hi) {
+		int best = 0;
+		double bestSpread = -1;
+		for (int axis = 0; axis < 3; axis++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = lo; i < hi; i++) {
+				double value = points[nodes[i]][axis];
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+			if (max - min > bestSpread) {
+				bestSpread = max - min;
+				best = axis;
+			}
+		}
+		return best;
+	}
+
+	// quickselect on nodes[lo..hi] so that nodes[k] holds the median along the axis
+	private void select(double[][] points, int lo, int hi, int k, int axis) {
+		while (lo < hi) {
+			double pivot = points[nodes[(lo + hi) >>> 1]][axis];
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (points[nodes[i]][axis] < pivot) {
+					i++;
+				}
+				while (points[nodes[j]][axis] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int tmp = nodes[i];
+					nodes[i] = nodes[j];
+					nodes[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				hi = j;
+			} else if (k >= i) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private boolean visitWithin(double x, double y, double z, double maxChordSquared, int lo, int hi,
+			Visitor visitor) {
+		if (hi - lo <= 0) {
+			return true;
+		}
+		int mid = (lo + hi) >>> 1;
+		double dx = x - xs[mid];
+		double dy = y - ys[mid];
+		double dz = z - zs[mid];
+		if (dx * dx + dy * dy + dz * dz <= maxChordSquared && !visitor.visit(nodes[mid], attractions.get(nodes[mid]))) {
+			return false;
+		}
+		int axis = axes[mid];
+		double delta = axis == 0 ? dx : axis == 1 ? dy : dz;
+		if ((delta <= 0 || delta * delta <= maxChordSquared)
+				&& !visitWithin(x, y, z, maxChordSquared, lo, mid, visitor)) {
+			return false;
+		}
+		return (delta < 0 && delta * delta > maxChordSquared)
+				|| visitWithin(x, y, z, maxChordSquared, mid + 1, hi, visitor);
+	}
+
+	private void searchNearest(double[] query, int lo, int hi, Candidates candidates) {
+		if (hi - lo <= 0) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		candidates.offer(nodes[mid], distanceSquared(query, mid));
+		double delta = query[axes[mid]] - coordinate(mid, axes[mid]);
+		boolean lowerFirst = delta <= 0;
+		if (lowerFirst) {
+			searchNearest(query, lo, mid, candidates);
+		} else {
+			searchNearest(query, mid + 1, hi, candidates);
+		}
+		if (delta * delta <= candidates.worstDistance()) {
+			if (lowerFirst) {
+				searchNearest(query, mid + 1, hi, candidates);
+			} else {
+				searchNearest(query, lo, mid, candidates);
+			}
+		}
+	}
+
+	private double distanceSquared(double[] query, int node) {
+		double dx = query[0] - xs[node];
+		double dy = query[1] - ys[node];
+		double dz = query[2] - zs[node];
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	private double coordinate(int node, int axis) {
+		return axis == 0 ? xs[node] : axis == 1 ? ys[node] : zs[node];
+	}
+
+	static double[] toUnitVector(Location location) {
+		double lat = Math.toRadians(location.latitude);
+		double lon = Math.toRadians(location.longitude);
+		double cosLat = Math.cos(lat);
+		return new double[] { cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat) };
+	}
+
+	/**
+	 * Receives the attractions matching a search.
+	 */
+	@FunctionalInterface
+	public interface Visitor {
+
+		/**
+		 * @param position the position of the attraction in {@link AttractionIndex#getAttractions()}
+		 * @param attraction the attraction
+		 * @return true to go on with the search, false to stop it
+		 */
+		boolean visit(int position, Attraction attraction);
+	}
+
+	/**
+	 * Positions of the attractions within a distance, in a buffer growing with the number of matches.
+	 */
+	private class Matches implements Visitor {
+		private int[] positions;
+		private int size;
+
+		@Override
+		public boolean visit(int position, Attraction attraction) {
+			if (positions == null) {
+				positions = new int[8];
+			} else if (size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+			return true;
+		}
+
+		List<Attraction> toList() {
+			if (size == 0) {
+				return Collections.emptyList();
+			}
+			Arrays.sort(positions, 0, size);
+			List<Attraction> result = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				result.add(attractions.get(positions[i]));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Bounded list of the closest candidates seen so far, kept sorted by distance.
+	 */
+	private static class Candidates {
+		private final int[] ids;
+		private final double[] distances;
+		private int size;
+
+		Candidates(int capacity) {
+			ids = new int[capacity];
+			distances = new double[capacity];
+		}
+
+		void offer(int id, double distance) {
+			if (size == ids.length && distance >= distances[size - 1]) {
+				return;
+			}
+			int i = size == ids.length ? size - 1 : size++;
+			while (i > 0 && distances[i - 1] > distance) {
+				ids[i] = ids[i - 1];
+				distances[i] = distances[i - 1];
+				i--;
+			}
+			ids[i] = id;
+			distances[i] = distance;
+		}
+
+		double worstDistance() {
+			return size < ids.length ? Double.POSITIVE_INFINITY : distances[size - 1];
+		}
+	}
+}
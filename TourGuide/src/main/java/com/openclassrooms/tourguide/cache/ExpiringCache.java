@@ -0,0 +1,258 @@
+package com.openclassrooms.tourguide.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, time-to-live cache with single-flight loading.
+ *
+ * Entries are evicted in least-recently-used order once the maximum size is reached, and expire a fixed delay
+ * after they have been loaded. Values are held as futures: the first caller asking for a missing key runs the
+ * loader, and every concurrent caller for the same key waits on that single load. Failed loads are not cached.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class ExpiringCache<K, V> {
+	private final int maximumSize;
+	private final long timeToLiveNanos;
+	private final LongSupplier clock;
+	private final LinkedHashMap<K, Entry<V>> entries;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param maximumSize the maximum number of entries
+	 * @param timeToLive how long an entry stays valid after it has been loaded
+	 */
+	public ExpiringCache(int maximumSize, Duration timeToLive) {
+		this(maximumSize, timeToLive, System::nanoTime);
+	}
+
+	/**
+	 * Creates a cache reading the time from the given clock.
+	 *
+	 * @param maximumSize the maximum number of entries
+	 * @param timeToLive how long an entry stays valid after it has been loaded
+	 * @param clock the source of the current time, in nanoseconds
+	 */
+	public ExpiringCache(int maximumSize, Duration timeToLive, LongSupplier clock) {
+		this.maximumSize = maximumSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if (size() > ExpiringCache.this.maximumSize) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the value of a key, loading it if it is missing or expired.
+	 *
+	 * @param key the key
+	 * @param loader called with the key on a miss; it runs on the calling thread and may complete asynchronously
+	 * @return the value, or the pending load shared by all concurrent callers
+	 */
+	public CompletableFuture<V> get(K key, Function<? super K, ? extends CompletableFuture<V>> loader) {
+		Entry<V> entry;
+		boolean load = false;
+		long now = clock.getAsLong();
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry == null || entry.isExpired(now)) {
+				entry = new Entry<>(new CompletableFuture<>(), now + timeToLiveNanos);
+				entries.put(key, entry);
+				load = true;
+			}
+		}
+		if (!load) {
+			hits.increment();
+			return entry.value;
+		}
+		misses.increment();
+		Entry<V> loading = entry;
+		try {
+			loader.apply(key).whenComplete((value, error) -> {
+				if (error != null) {
+					discard(key, loading);
+					loading.value.completeExceptionally(error);
+				} else {
+					loading.value.complete(value);
+				}
+			});
+		} catch (RuntimeException e) {
+			discard(key, loading);
+			loading.value.completeExceptionally(e);
+		}
+		return loading.value;
+	}
+
+	/**
+	 * Returns the values of several keys, loading all the missing or expired ones with a single call.
+	 *
+	 * @param keys the keys
+	 * @param loader called with the keys to load, if any; it runs on the calling thread and returns the pending
+	 * value of each key. Each key completes as soon as its own value is loaded, whatever the other keys become.
+	 * The keys missing from its result fail to load
+	 * @return the value of each key, or the pending load shared by all concurrent callers
+	 */
+	public Map<K, CompletableFuture<V>> getAll(Collection<K> keys,
+			Function<Set<K>, Map<K, CompletableFuture<V>>> loader) {
+		Map<K, CompletableFuture<V>> values = new LinkedHashMap<>();
+		Map<K, Entry<V>> loading = new LinkedHashMap<>();
+		long now = clock.getAsLong();
+		synchronized (entries) {
+			for (K key : keys) {
+				if (values.containsKey(key)) {
+					continue;
+				}
+				Entry<V> entry = entries.get(key);
+				if (entry == null || entry.isExpired(now)) {
+					entry = new Entry<>(new CompletableFuture<>(), now + timeToLiveNanos);
+					entries.put(key, entry);
+					loading.put(key, entry);
+				}
+				values.put(key, entry.value);
+			}
+		}
+		hits.add(values.size() - loading.size());
+		if (loading.isEmpty()) {
+			return values;
+		}
+		misses.add(loading.size());
+		Map<K, CompletableFuture<V>> loaded;
+		try {
+			loaded = loader.apply(Collections.unmodifiableSet(loading.keySet()));
+		} catch (RuntimeException e) {
+			loading.forEach((key, entry) -> {
+				discard(key, entry);
+				entry.value.completeExceptionally(e);
+			});
+			return values;
+		}
+		loading.forEach((key, entry) -> {
+			CompletableFuture<V> value = loaded.get(key);
+			if (value == null) {
+				value = CompletableFuture.failedFuture(new NoSuchElementException("No value loaded for " + key));
+			}
+			value.whenComplete((result, error) -> {
+				if (error != null) {
+					discard(key, entry);
+					entry.value.completeExceptionally(error);
+				} else {
+					entry.value.complete(result);
+				}
+			});
+		});
+		return values;
+	}
+
+	/**
+	 * Returns the value of a key, loading it synchronously on the calling thread if it is missing or expired.
+	 *
+	 * @param key the key
+	 * @param loader computes the value on a miss
+	 * @return the value
+	 */
+	public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+		return get(key, k -> CompletableFuture.completedFuture(loader.apply(k))).join();
+	}
+
+	/**
+	 * Tells whether a key has a value, or a pending load, which has not expired. Nothing is loaded.
+	 *
+	 * @param key the key
+	 * @return whether a {@link #get} of the key would be a hit
+	 */
+	public boolean contains(K key) {
+		long now = clock.getAsLong();
+		synchronized (entries) {
+			Entry<V> entry = entries.get(key);
+			return entry != null && !entry.isExpired(now);
+		}
+	}
+
+	/**
+	 * Removes a key from the cache.
+	 *
+	 * @param key the key
+	 */
+	public void invalidate(K key) {
+		synchronized (entries) {
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * Removes the expired entries. They are otherwise only replaced when they are read again.
+	 */
+	public void cleanUp() {
+		long now = clock.getAsLong();
+		synchronized (entries) {
+			Iterator<Entry<V>> iterator = entries.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().isExpired(now)) {
+					iterator.remove();
+					evictions.increment();
+				}
+			}
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private void discard(K key, Entry<V> entry) {
+		synchronized (entries) {
+			entries.remove(key, entry);
+		}
+	}
+
+	private static class Entry<V> {
+		private final CompletableFuture<V> value;
+		private final long expiresAt;
+
+		Entry(CompletableFuture<V> value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return now - expiresAt >= 0 && value.isDone();
+		}
+	}
+}
@@ -0,0 +1,331 @@
+package com.openclassrooms.tourguide.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-lived, bounded executor shared by the batch operations of the application.
+ *
+ * The executor is configured once and reused for every batch, instead of creating and tearing down
+ * a fixed thread pool on each call. It runs in one of two {@link ExecutionMode}s:
+ * <ul>
+ * <li>{@link ExecutionMode#PLATFORM}: a fixed pool fed by a bounded queue.
+ * Idle threads time out so an unused executor does not hold on to OS threads.</li>
+ * <li>{@link ExecutionMode#VIRTUAL}: one virtual thread per task. A semaphore bounds the number of tasks
+ * in flight.</li>
+ * </ul>
+ * What happens once the executor is saturated depends on its {@link SaturationPolicy}. By default the submitting
+ * thread runs the task itself, or waits for a permit, which throttles producers instead of rejecting work.
+ */
+public class BoundedExecutor implements Executor, AutoCloseable {
+	public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(60);
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+	private static final Logger logger = LoggerFactory.getLogger(BoundedExecutor.class);
+
+	private final String name;
+	private final ExecutionMode mode;
+	private final int concurrency;
+	private final ThreadPoolExecutor pool;
+	private final ThreadFactory taskThreadFactory;
+	private final Semaphore permits;
+	private final SaturationPolicy saturationPolicy;
+	private final int queueCapacity;
+	private final AtomicInteger waitingVirtualTasks = new AtomicInteger();
+	private final AtomicLong completedVirtualTasks = new AtomicLong();
+	private final AtomicLong rejectedTasks = new AtomicLong();
+	private volatile boolean shutdown;
+
+	/**
+	 * Creates a new executor backed by a pool of platform threads.
+	 *
+	 * @param name the name used as prefix for the worker threads
+	 * @param poolSize the maximum number of worker threads
+	 * @param queueCapacity the maximum number of tasks waiting for a worker
+	 */
+	public BoundedExecutor(String name, int poolSize, int queueCapacity) {
+		this(ExecutionMode.PLATFORM, name, poolSize, queueCapacity);
+	}
+
+	/**
+	 * Creates a new executor.
+	 *
+	 * @param mode how tasks are run
+	 * @param name the name used as prefix for the worker threads
+	 * @param concurrency the maximum number of tasks running at the same time
+	 * @param queueCapacity the maximum number of tasks waiting for a worker, only used in
+	 * {@link ExecutionMode#PLATFORM} mode
+	 */
+	public BoundedExecutor(ExecutionMode mode, String name, int concurrency, int queueCapacity) {
+		this(mode, name, concurrency, queueCapacity, DEFAULT_KEEP_ALIVE);
+	}
+
+	/**
+	 * Creates a new executor.
+	 *
+	 * @param mode how tasks are run
+	 * @param name the name used as prefix for the worker threads
+	 * @param concurrency the maximum number of tasks running at the same time
+	 * @param queueCapacity the maximum number of tasks waiting for a worker, only used in
+	 * {@link ExecutionMode#PLATFORM} mode
+	 * @param keepAlive how long an idle worker thread is kept, only used in {@link ExecutionMode#PLATFORM} mode
+	 */
+	public BoundedExecutor(ExecutionMode mode, String name, int concurrency, int queueCapacity, Duration keepAlive) {
+		this(mode, name, concurrency, queueCapacity, SaturationPolicy.CALLER_RUNS, keepAlive);
+	}
+
+	/**
+	 * Creates a new executor with the default keep-alive.
+	 *
+	 * @param mode how tasks are run
+	 * @param name the name used as prefix for the worker threads
+	 * @param concurrency the maximum number of tasks running at the same time
+	 * @param queueCapacity the maximum number of tasks waiting for a worker
+	 * @param saturationPolicy what to do with the tasks submitted once the queue is full
+	 */
+	public BoundedExecutor(ExecutionMode mode, String name, int concurrency, int queueCapacity,
+			SaturationPolicy saturationPolicy) {
+		this(mode, name, concurrency, queueCapacity, saturationPolicy, DEFAULT_KEEP_ALIVE);
+	}
+
+	/**
+	 * Creates a new executor.
+	 *
+	 * @param mode how tasks are run
+	 * @param name the name used as prefix for the worker threads
+	 * @param concurrency the maximum number of tasks running at the same time
+	 * @param queueCapacity the maximum number of tasks waiting for a worker. In {@link ExecutionMode#VIRTUAL} mode
+	 * with the {@link SaturationPolicy#CALLER_RUNS} policy, submitters wait for a permit instead
+	 * @param saturationPolicy what to do with the tasks submitted once the queue is full
+	 * @param keepAlive how long an idle worker thread is kept, only used in {@link ExecutionMode#PLATFORM} mode
+	 */
+	public BoundedExecutor(ExecutionMode mode, String name, int concurrency, int queueCapacity,
+			SaturationPolicy saturationPolicy, Duration keepAlive) {
+		this.name = name;
+		this.mode = mode;
+		this.concurrency = concurrency;
+		this.queueCapacity = queueCapacity;
+		this.saturationPolicy = saturationPolicy;
+		if (mode == ExecutionMode.VIRTUAL) {
+			this.pool = null;
+			this.taskThreadFactory = virtualThreadFactory(name);
+			this.permits = new Semaphore(concurrency);
+		} else {
+			this.pool = new ThreadPoolExecutor(concurrency, concurrency, keepAlive.toNanos(), TimeUnit.NANOSECONDS,
+					new LinkedBlockingQueue<>(queueCapacity), new NamedThreadFactory(name),
+					saturationPolicy == SaturationPolicy.CALLER_RUNS
+							? new ThreadPoolExecutor.CallerRunsPolicy()
+							: (task, executor) -> saturated());
+			this.pool.allowCoreThreadTimeOut(true);
+			this.taskThreadFactory = null;
+			this.permits = null;
+		}
+	}
+
+	/**
+	 * Default pool size for I/O bound work: eight threads per core, with a minimum of 100.
+	 *
+	 * @return the default pool size
+	 */
+	public static int defaultPoolSize() {
+		return Math.max(Runtime.getRuntime().availableProcessors() * 8, 100);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		// checked here as well in PLATFORM mode, where the caller-runs policy silently drops the tasks of a
+		// shut down pool
+		if (shutdown) {
+			throw new RejectedExecutionException("Executor " + name + " has been shut down");
+		}
+		if (pool != null) {
+			pool.execute(command);
+		} else if (permits.tryAcquire()) {
+			startVirtual(command, true);
+		} else if (saturationPolicy == SaturationPolicy.CALLER_RUNS) {
+			waitingVirtualTasks.incrementAndGet();
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("Interrupted while waiting for a permit on " + name, e);
+			} finally {
+				waitingVirtualTasks.decrementAndGet();
+			}
+			startVirtual(command, true);
+		} else if (waitingVirtualTasks.incrementAndGet() <= queueCapacity) {
+			// the virtual thread waits for the permit, not the submitter
+			startVirtual(command, false);
+		} else {
+			waitingVirtualTasks.decrementAndGet();
+			saturated();
+		}
+	}
+
+	/**
+	 * Starts a virtual thread running a task, once it holds a permit.
+	 *
+	 * @param acquired whether the permit has already been acquired by the submitter
+	 */
+	private void startVirtual(Runnable command, boolean acquired) {
+		try {
+			taskThreadFactory.newThread(() -> {
+				if (!acquired) {
+					permits.acquireUninterruptibly();
+					waitingVirtualTasks.decrementAndGet();
+				}
+				try {
+					command.run();
+				} finally {
+					completedVirtualTasks.incrementAndGet();
+					permits.release();
+				}
+			}).start();
+		} catch (RuntimeException | Error e) {
+			if (acquired) {
+				permits.release();
+			} else {
+				waitingVirtualTasks.decrementAndGet();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Handles a task submitted while the executor is saturated, unless the caller runs it: the task is rejected,
+	 * or dropped with the {@link SaturationPolicy#DISCARD} policy.
+	 */
+	private void saturated() {
+		rejectedTasks.incrementAndGet();
+		if (saturationPolicy != SaturationPolicy.DISCARD) {
+			throw new RejectedExecutionException("Executor " + name + " is saturated");
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public ExecutionMode getMode() {
+		return mode;
+	}
+
+	public SaturationPolicy getSaturationPolicy() {
+		return saturationPolicy;
+	}
+
+	/**
+	 * @return the maximum number of tasks running at the same time
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * @return the number of tasks waiting for a worker thread
+	 */
+	public int getQueueDepth() {
+		return pool != null ? pool.getQueue().size() : waitingVirtualTasks.get();
+	}
+
+	/**
+	 * @return the approximate number of threads actively executing tasks
+	 */
+	public int getActiveCount() {
+		return pool != null ? pool.getActiveCount() : concurrency - permits.availablePermits();
+	}
+
+	/**
+	 * @return the current number of threads in the pool, or of virtual threads running a task
+	 */
+	public int getPoolSize() {
+		return pool != null ? pool.getPoolSize() : concurrency - permits.availablePermits();
+	}
+
+	/**
+	 * @return the approximate number of tasks that have completed execution
+	 */
+	public long getCompletedTaskCount() {
+		return pool != null ? pool.getCompletedTaskCount() : completedVirtualTasks.get();
+	}
+
+	/**
+	 * @return the number of tasks rejected or discarded because the executor was saturated
+	 */
+	public long getRejectedTaskCount() {
+		return rejectedTasks.get();
+	}
+
+	/**
+	 * Stops accepting new tasks, which are then rejected, and waits for the running ones to complete.
+	 * In {@link ExecutionMode#PLATFORM} mode, tasks still running after the timeout are interrupted.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		try {
+			if (pool != null) {
+				pool.shutdown();
+				if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					logger.warn("Executor {} did not terminate in time, interrupting remaining tasks", name);
+					pool.shutdownNow();
+				}
+			} else if (permits.tryAcquire(concurrency, SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				permits.release(concurrency);
+			} else {
+				logger.warn("Executor {} did not terminate in time", name);
+			}
+		} catch (InterruptedException e) {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		shutdown();
+	}
+
+	/**
+	 * Looks up the virtual thread builder reflectively so the application still runs on a Java 17 runtime.
+	 */
+	private static ThreadFactory virtualThreadFactory(String name) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			logger.warn("Virtual threads are not available on Java {}, executor {} uses platform threads",
+					Runtime.version().feature(), name);
+			return new NamedThreadFactory(name);
+		}
+	}
+
+	private static class NamedThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.openclassrooms.tourguide.concurrent;
+
+/**
+ * How a {@link BoundedExecutor} runs its tasks.
+ */
+public enum ExecutionMode {
+	/**
+	 * A fixed pool of platform threads fed by a bounded queue.
+	 */
+	PLATFORM,
+	/**
+	 * One virtual thread per task, the number of tasks in flight being bounded by a semaphore.
+	 * Requires a Java 21 runtime; platform threads are used as a fallback on older runtimes.
+	 */
+	VIRTUAL
+}
@@ -0,0 +1,21 @@
+package com.openclassrooms.tourguide.concurrent;
+
+/**
+ * What a {@link BoundedExecutor} does with a task submitted while every worker is busy and the queue is full.
+ */
+public enum SaturationPolicy {
+	/**
+	 * The submitting thread runs the task itself in {@link ExecutionMode#PLATFORM} mode, or waits for a
+	 * permit in {@link ExecutionMode#VIRTUAL} mode, which throttles producers to the pace of the executor.
+	 */
+	CALLER_RUNS,
+	/**
+	 * The task is rejected with a {@link java.util.concurrent.RejectedExecutionException}, so that callers
+	 * which must not block, such as request handlers, fail fast instead.
+	 */
+	ABORT,
+	/**
+	 * The task is silently dropped, for best-effort work such as prefetches that nobody waits for.
+	 */
+	DISCARD
+}
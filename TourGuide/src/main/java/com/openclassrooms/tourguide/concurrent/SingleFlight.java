@@ -0,0 +1,73 @@
+package com.openclassrooms.tourguide.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent calls for the same key: while a call is in flight, callers asking for the same key
+ * get its result instead of starting their own. Nothing is kept once the call completes, so the next caller
+ * starts a new call.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class SingleFlight<K, V> {
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong calls = new AtomicLong();
+	private final AtomicLong sharedCalls = new AtomicLong();
+
+	/**
+	 * Starts a call for a key, unless one is already in flight.
+	 *
+	 * @param key the key
+	 * @param call starts the call; it only runs when no call is in flight for the key
+	 * @return the result of the call in flight for the key
+	 */
+	public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+		CompletableFuture<V> result = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, result);
+		if (existing != null) {
+			sharedCalls.incrementAndGet();
+			return existing;
+		}
+		calls.incrementAndGet();
+		try {
+			call.get().whenComplete((value, e) -> {
+				// forget the call before completing it, so that callers served the result never start a stale call
+				inFlight.remove(key, result);
+				if (e != null) {
+					result.completeExceptionally(e);
+				} else {
+					result.complete(value);
+				}
+			});
+		} catch (RuntimeException e) {
+			inFlight.remove(key, result);
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of calls in flight
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * @return the number of calls started
+	 */
+	public long getCallCount() {
+		return calls.get();
+	}
+
+	/**
+	 * @return the number of callers served the result of a call started by another caller
+	 */
+	public long getSharedCallCount() {
+		return sharedCalls.get();
+	}
+}
@@ -0,0 +1,108 @@
+package com.openclassrooms.tourguide.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket rate limiter.
+ *
+ * Tokens are added continuously at the configured rate, up to the burst size. A caller that finds the
+ * bucket empty reserves the next token and sleeps outside of the lock until it is due, so waiting callers
+ * are served in arrival order and never hold each other up beyond their own reservation.
+ */
+public class TokenBucket {
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final double nanosPerToken;
+	private final double burst;
+	private final LongSupplier clock;
+	private double tokens;
+	private long lastRefill;
+
+	/**
+	 * Creates a new bucket holding up to one second worth of tokens.
+	 *
+	 * @param permitsPerSecond the sustained rate, must be positive
+	 */
+	public TokenBucket(double permitsPerSecond) {
+		this(permitsPerSecond, Math.max(1, permitsPerSecond), System::nanoTime);
+	}
+
+	/**
+	 * Creates a new bucket.
+	 *
+	 * @param permitsPerSecond the sustained rate, must be positive
+	 * @param burst the maximum number of tokens accumulated while the bucket is idle
+	 * @param clock the source of the current time in nanoseconds
+	 */
+	public TokenBucket(double permitsPerSecond, double burst, LongSupplier clock) {
+		if (permitsPerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("The rate must be positive and the burst at least one token");
+		}
+		this.nanosPerToken = NANOS_PER_SECOND / permitsPerSecond;
+		this.burst = burst;
+		this.clock = clock;
+		this.tokens = burst;
+		this.lastRefill = clock.getAsLong();
+	}
+
+	/**
+	 * Takes a token, waiting until one is available.
+	 *
+	 * @return the time spent waiting, in nanoseconds
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public long acquire() throws InterruptedException {
+		long wait = reserve();
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+		return wait;
+	}
+
+	/**
+	 * Takes a token if one is available right now.
+	 *
+	 * @return true if a token was taken
+	 */
+	public synchronized boolean tryAcquire() {
+		refill();
+		if (tokens < 1) {
+			return false;
+		}
+		tokens--;
+		return true;
+	}
+
+	/**
+	 * @return how long until a token is available, 0 if one is available right now, in nanoseconds
+	 */
+	public synchronized long nanosUntilAvailable() {
+		refill();
+		return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+	}
+
+	/**
+	 * @return the sustained rate of the bucket
+	 */
+	public double getPermitsPerSecond() {
+		return NANOS_PER_SECOND / nanosPerToken;
+	}
+
+	/**
+	 * Takes a token, going into debt when the bucket is empty.
+	 *
+	 * @return how long the caller has to wait before its token is due, in nanoseconds
+	 */
+	private synchronized long reserve() {
+		refill();
+		tokens--;
+		return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+	}
+
+	private void refill() {
+		long now = clock.getAsLong();
+		tokens = Math.min(burst, tokens + (now - lastRefill) / nanosPerToken);
+		lastRefill = now;
+	}
+}
@@ -0,0 +1,15 @@
+package com.openclassrooms.tourguide.gateway;
+
+/**
+ * What answers the calls made to the vendor libraries.
+ */
+public enum GatewayMode {
+	/**
+	 * The GpsUtil, RewardCentral and TripPricer libraries.
+	 */
+	VENDOR,
+	/**
+	 * In-process simulators with seeded randomness and configurable latency, rate limits and failures.
+	 */
+	SIMULATED
+}
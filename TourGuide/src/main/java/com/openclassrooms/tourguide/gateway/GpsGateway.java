@@ -0,0 +1,146 @@
+package com.openclassrooms.tourguide.gateway;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.concurrent.TokenBucket;
+
+/**
+ * Governs the location lookups sent to {@link GpsUtil}.
+ *
+ * GpsUtil throttles every caller with the same static rate limiter, so a tracker sweep could make user
+ * requests wait behind thousands of background lookups. The gateway hands out its own permits, at a rate not
+ * above the one of GpsUtil so that its limiter never blocks, and serves them by {@link Lane}: a background
+ * lookup is only admitted when no interactive lookup is waiting, or once it has waited longer than the max
+ * background wait, so that a steady flow of requests cannot starve the tracker. The time spent waiting for a
+ * permit is recorded per lane.
+ */
+public class GpsGateway {
+	public static final double DEFAULT_PERMITS_PER_SECOND = 1000;
+	public static final Duration DEFAULT_MAX_BACKGROUND_WAIT = Duration.ofSeconds(1);
+	private static final long MIN_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final GpsUtil gpsUtil;
+	private final TokenBucket permits;
+	private final long maxBackgroundWaitNanos;
+	private final Object lock = new Object();
+	private final Map<Lane, LaneCounters> lanes = new EnumMap<>(Lane.class);
+
+	/**
+	 * Creates a new gateway granting as many permits as GpsUtil.
+	 *
+	 * @param gpsUtil the GPS utility
+	 */
+	public GpsGateway(GpsUtil gpsUtil) {
+		this(gpsUtil, DEFAULT_PERMITS_PER_SECOND);
+	}
+
+	/**
+	 * Creates a new gateway letting background lookups wait at most {@link #DEFAULT_MAX_BACKGROUND_WAIT}
+	 * behind interactive ones.
+	 *
+	 * @param gpsUtil the GPS utility
+	 * @param permitsPerSecond the maximum number of lookups per second
+	 */
+	public GpsGateway(GpsUtil gpsUtil, double permitsPerSecond) {
+		this(gpsUtil, permitsPerSecond, DEFAULT_MAX_BACKGROUND_WAIT);
+	}
+
+	/**
+	 * Creates a new gateway.
+	 *
+	 * @param gpsUtil the GPS utility
+	 * @param permitsPerSecond the maximum number of lookups per second
+	 * @param maxBackgroundWait how long a background lookup waits behind interactive ones before it competes
+	 * with them for the next permit
+	 */
+	public GpsGateway(GpsUtil gpsUtil, double permitsPerSecond, Duration maxBackgroundWait) {
+		this.gpsUtil = gpsUtil;
+		this.permits = new TokenBucket(permitsPerSecond);
+		this.maxBackgroundWaitNanos = maxBackgroundWait.toNanos();
+		for (Lane lane : Lane.values()) {
+			lanes.put(lane, new LaneCounters());
+		}
+	}
+
+	/**
+	 * Gets the current location of a user, once a permit has been granted on the given lane.
+	 *
+	 * @param userId the id of the user
+	 * @param lane the priority of the lookup
+	 * @return the location of the user
+	 * @throws InterruptedException if the thread is interrupted while waiting for a permit
+	 */
+	public VisitedLocation getUserLocation(UUID userId, Lane lane) throws InterruptedException {
+		acquire(lane);
+		return gpsUtil.getUserLocation(userId);
+	}
+
+	/**
+	 * @param lane the lane
+	 * @return the permit wait times of the lane
+	 */
+	public LaneStatistics getStatistics(Lane lane) {
+		LaneCounters counters = lanes.get(lane);
+		synchronized (lock) {
+			return new LaneStatistics(counters.permits, counters.waiting, Duration.ofNanos(counters.totalWaitNanos),
+					Duration.ofNanos(counters.maxWaitNanos));
+		}
+	}
+
+	/**
+	 * @return the GPS utility behind the gateway
+	 */
+	public GpsUtil getGpsUtil() {
+		return gpsUtil;
+	}
+
+	/**
+	 * Waits for a permit. Interactive callers only wait for the bucket to refill; background callers also
+	 * wait for every interactive caller to be served, unless they have already waited for the max background
+	 * wait.
+	 */
+	private void acquire(Lane lane) throws InterruptedException {
+		LaneCounters counters = lanes.get(lane);
+		LaneCounters interactive = lanes.get(Lane.INTERACTIVE);
+		long start = System.nanoTime();
+		synchronized (lock) {
+			counters.waiting++;
+			try {
+				while (!(admits(lane, interactive, start) && permits.tryAcquire())) {
+					TimeUnit.NANOSECONDS.timedWait(lock, Math.max(MIN_WAIT_NANOS, permits.nanosUntilAvailable()));
+				}
+			} finally {
+				counters.waiting--;
+				if (lane == Lane.INTERACTIVE && counters.waiting == 0) {
+					lock.notifyAll();
+				}
+			}
+			long wait = System.nanoTime() - start;
+			counters.permits++;
+			counters.totalWaitNanos += wait;
+			counters.maxWaitNanos = Math.max(counters.maxWaitNanos, wait);
+		}
+	}
+
+	private boolean admits(Lane lane, LaneCounters interactive, long start) {
+		return lane == Lane.INTERACTIVE || interactive.waiting == 0
+				|| System.nanoTime() - start >= maxBackgroundWaitNanos;
+	}
+
+	/**
+	 * Counters of a lane, guarded by the lock of the gateway.
+	 */
+	private static final class LaneCounters {
+		private int waiting;
+		private long permits;
+		private long totalWaitNanos;
+		private long maxWaitNanos;
+	}
+}
@@ -0,0 +1,15 @@
+package com.openclassrooms.tourguide.gateway;
+
+/**
+ * Priority of a call through a gateway.
+ */
+public enum Lane {
+	/**
+	 * Calls made on behalf of a user request, always admitted ahead of the background ones.
+	 */
+	INTERACTIVE,
+	/**
+	 * Calls made by the tracker, admitted only when no interactive call is waiting.
+	 */
+	BACKGROUND
+}
@@ -0,0 +1,21 @@
+package com.openclassrooms.tourguide.gateway;
+
+import java.time.Duration;
+
+/**
+ * Permit wait times of a {@link Lane}.
+ *
+ * @param permits the number of permits granted
+ * @param waiting the number of callers currently waiting for a permit
+ * @param totalWait the time spent waiting for the permits granted
+ * @param maxWait the longest wait for a permit
+ */
+public record LaneStatistics(long permits, int waiting, Duration totalWait, Duration maxWait) {
+
+	/**
+	 * @return the average wait for a permit
+	 */
+	public Duration averageWait() {
+		return permits == 0 ? Duration.ZERO : totalWait.dividedBy(permits);
+	}
+}
@@ -0,0 +1,174 @@
+package com.openclassrooms.tourguide.gateway;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rewardCentral.RewardCentral;
+
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+
+/**
+ * {@link RewardPointsGateway} on top of {@link RewardCentral}, which only answers one user and attraction at
+ * a time.
+ *
+ * Requests are collected for a short window, or until a batch is full, and then dispatched together: each
+ * distinct key of the batch is one RewardCentral call on the dispatch executor, whose size bounds the calls
+ * in flight. Keys requested several times within a window share one call. Each key completes on its own, as
+ * soon as its call returns. When a real batch endpoint is available, only {@link #dispatch(Map)} has to change.
+ *
+ * Batches are dispatched by a single thread, or by the caller filling a batch, so the dispatch executor must
+ * never run a call on the dispatching thread: it should reject the calls it cannot queue, see
+ * {@link SaturationPolicy#ABORT}. The keys of rejected calls fail with the
+ * {@link java.util.concurrent.RejectedExecutionException}, and later windows keep being dispatched.
+ */
+public class RewardCentralGateway implements RewardPointsGateway, AutoCloseable {
+	public static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(2);
+	public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+	private final RewardCentral rewardCentral;
+	private final Executor dispatchExecutor;
+	private final long batchWindowNanos;
+	private final int maxBatchSize;
+	private final ScheduledExecutorService flusher;
+	private final Object lock = new Object();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong callCount = new AtomicLong();
+	private Map<RewardPointsKey, CompletableFuture<Integer>> pending = new LinkedHashMap<>();
+	private boolean flushScheduled;
+
+	/**
+	 * Creates a new gateway with the default batch window and size.
+	 *
+	 * @param rewardCentral the reward points provider
+	 * @param dispatchExecutor the executor running the RewardCentral calls, rejecting those it cannot queue
+	 */
+	public RewardCentralGateway(RewardCentral rewardCentral, Executor dispatchExecutor) {
+		this(rewardCentral, dispatchExecutor, DEFAULT_BATCH_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a new gateway.
+	 *
+	 * @param rewardCentral the reward points provider
+	 * @param dispatchExecutor the executor running the RewardCentral calls, rejecting those it cannot queue
+	 * @param batchWindow how long requests are collected before being dispatched
+	 * @param maxBatchSize the number of distinct keys dispatching a batch before the end of its window
+	 */
+	public RewardCentralGateway(RewardCentral rewardCentral, Executor dispatchExecutor, Duration batchWindow,
+			int maxBatchSize) {
+		if (batchWindow.isNegative() || maxBatchSize < 1) {
+			throw new IllegalArgumentException("The batch window must not be negative and the batch size positive");
+		}
+		this.rewardCentral = rewardCentral;
+		this.dispatchExecutor = dispatchExecutor;
+		this.batchWindowNanos = batchWindow.toNanos();
+		this.maxBatchSize = maxBatchSize;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "reward-points-batcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public Map<RewardPointsKey, CompletableFuture<Integer>> getPointsAsync(Collection<RewardPointsKey> keys) {
+		Map<RewardPointsKey, CompletableFuture<Integer>> requested = new LinkedHashMap<>();
+		Map<RewardPointsKey, CompletableFuture<Integer>> full = null;
+		synchronized (lock) {
+			for (RewardPointsKey key : keys) {
+				requested.computeIfAbsent(key, k -> pending.computeIfAbsent(k, ignored -> new CompletableFuture<>()));
+			}
+			if (!pending.isEmpty() && !flushScheduled) {
+				flushScheduled = scheduleFlush();
+			}
+			if (pending.size() >= maxBatchSize || !flushScheduled) {
+				full = pending;
+				pending = new LinkedHashMap<>();
+			}
+		}
+		if (full != null && !full.isEmpty()) {
+			dispatch(full);
+		}
+		return requested;
+	}
+
+	/**
+	 * @return the number of batches dispatched
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * @return the number of calls made to RewardCentral
+	 */
+	public long getCallCount() {
+		return callCount.get();
+	}
+
+	/**
+	 * Dispatches the pending requests and stops collecting new ones: later requests are dispatched right
+	 * away. The dispatch executor is owned by the caller.
+	 */
+	@Override
+	public void close() {
+		flusher.shutdownNow();
+		flush();
+	}
+
+	/**
+	 * @return false if the gateway is closed, requests then being dispatched right away
+	 */
+	private boolean scheduleFlush() {
+		try {
+			flusher.schedule(this::flush, batchWindowNanos, TimeUnit.NANOSECONDS);
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	private void flush() {
+		Map<RewardPointsKey, CompletableFuture<Integer>> batch;
+		synchronized (lock) {
+			flushScheduled = false;
+			batch = pending;
+			pending = new LinkedHashMap<>();
+		}
+		if (!batch.isEmpty()) {
+			dispatch(batch);
+		}
+	}
+
+	/**
+	 * Sends a batch to RewardCentral, one call per key. The keys the dispatch executor rejects fail right away.
+	 */
+	private void dispatch(Map<RewardPointsKey, CompletableFuture<Integer>> batch) {
+		batchCount.incrementAndGet();
+		batch.forEach((key, future) -> {
+			try {
+				dispatchExecutor.execute(() -> call(key, future));
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+		});
+	}
+
+	private void call(RewardPointsKey key, CompletableFuture<Integer> future) {
+		try {
+			callCount.incrementAndGet();
+			future.complete(rewardCentral.getAttractionRewardPoints(key.attractionId(), key.userId()));
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+	}
+}
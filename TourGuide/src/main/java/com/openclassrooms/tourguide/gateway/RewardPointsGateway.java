@@ -0,0 +1,33 @@
+package com.openclassrooms.tourguide.gateway;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of the reward points granted to users for attractions, queried in batches.
+ */
+public interface RewardPointsGateway {
+
+	/**
+	 * Gets the reward points of several users and attractions, waiting for all of them.
+	 *
+	 * @param keys the users and attractions
+	 * @return the points of each key
+	 */
+	default Map<RewardPointsKey, Integer> getPoints(Collection<RewardPointsKey> keys) {
+		Map<RewardPointsKey, Integer> points = new HashMap<>();
+		getPointsAsync(keys).forEach((key, future) -> points.put(key, future.join()));
+		return points;
+	}
+
+	/**
+	 * Gets the reward points of several users and attractions.
+	 *
+	 * @param keys the users and attractions
+	 * @return the points of each key, completed as soon as they are known: a slow or failed key does not hold
+	 * the others back
+	 */
+	Map<RewardPointsKey, CompletableFuture<Integer>> getPointsAsync(Collection<RewardPointsKey> keys);
+}
@@ -0,0 +1,12 @@
+package com.openclassrooms.tourguide.gateway;
+
+import java.util.UUID;
+
+/**
+ * Identifies the reward points granted to a user for an attraction.
+ *
+ * @param attractionId the attraction identifier
+ * @param userId the user identifier
+ */
+public record RewardPointsKey(UUID attractionId, UUID userId) {
+}
@@ -0,0 +1,99 @@
+package com.openclassrooms.tourguide.geo;
+
+import gpsUtil.location.Location;
+
+/**
+ * Great-circle distance kernel.
+ *
+ * Distances are handled as the squared length of the chord joining two points of the unit sphere, which grows
+ * with their great-circle distance: comparing two distances, or a distance to a radius, only needs the squared
+ * chords, computed from the haversine of the two points without any inverse trigonometric call. A distance in
+ * miles costs a single {@code asin}, for the values actually returned to a caller. Nothing is allocated.
+ * Radii compared on every location should be given as a {@link Radius}, whose squared chord is computed once.
+ */
+public final class GreatCircle {
+	private static final double STATUTE_MILES_PER_NAUTICAL_MILE = 1.15077945;
+	/**
+	 * Earth radius implied by the definition of the nautical mile as one minute of arc.
+	 */
+	public static final double EARTH_RADIUS_MILES = STATUTE_MILES_PER_NAUTICAL_MILE * 60 * Math.toDegrees(1);
+	/**
+	 * Squared chord between two antipodal points, the largest there is.
+	 */
+	public static final double MAX_CHORD_SQUARED = 4;
+
+	private GreatCircle() {
+	}
+
+	/**
+	 * @param loc1 the first location
+	 * @param loc2 the second location
+	 * @return the distance between the two locations, in statute miles
+	 */
+	public static double distance(Location loc1, Location loc2) {
+		return milesOf(chordSquared(loc1, loc2));
+	}
+
+	/**
+	 * Checks whether two locations are within a given distance, without computing the distance.
+	 *
+	 * @param loc1 the first location
+	 * @param loc2 the second location
+	 * @param miles the distance in statute miles
+	 * @return true if the great-circle distance between the locations is at most {@code miles}
+	 */
+	public static boolean isWithin(Location loc1, Location loc2, double miles) {
+		return chordSquared(loc1, loc2) <= chordSquaredOf(miles);
+	}
+
+	/**
+	 * Checks whether two locations are within a radius, whose squared chord is already known.
+	 *
+	 * @param loc1 the first location
+	 * @param loc2 the second location
+	 * @param radius the radius
+	 * @return true if the great-circle distance between the locations is at most the radius
+	 */
+	public static boolean isWithin(Location loc1, Location loc2, Radius radius) {
+		return chordSquared(loc1, loc2) <= radius.chordSquared();
+	}
+
+	/**
+	 * @param loc1 the first location
+	 * @param loc2 the second location
+	 * @return the squared chord between the two locations on the unit sphere
+	 */
+	public static double chordSquared(Location loc1, Location loc2) {
+		double lat1 = Math.toRadians(loc1.latitude);
+		double lat2 = Math.toRadians(loc2.latitude);
+		double sinHalfLat = Math.sin((lat2 - lat1) / 2);
+		double sinHalfLon = Math.sin(Math.toRadians(loc2.longitude - loc1.longitude) / 2);
+		double haversine = sinHalfLat * sinHalfLat + Math.cos(lat1) * Math.cos(lat2) * sinHalfLon * sinHalfLon;
+		return 4 * Math.min(1, haversine);
+	}
+
+	/**
+	 * Converts a great-circle distance into the squared chord of the unit sphere.
+	 *
+	 * @param miles the distance in statute miles
+	 * @return the matching squared chord, at most {@link #MAX_CHORD_SQUARED}
+	 */
+	public static double chordSquaredOf(double miles) {
+		double angle = miles / EARTH_RADIUS_MILES;
+		if (angle >= Math.PI) {
+			return MAX_CHORD_SQUARED;
+		}
+		double chord = 2 * Math.sin(angle / 2);
+		return chord * chord;
+	}
+
+	/**
+	 * Converts a squared chord of the unit sphere into a great-circle distance.
+	 *
+	 * @param chordSquared the squared chord
+	 * @return the matching distance in statute miles
+	 */
+	public static double milesOf(double chordSquared) {
+		return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+	}
+}
@@ -0,0 +1,46 @@
+package com.openclassrooms.tourguide.geo;
+
+/**
+ * Great-circle distance used as a search or proximity radius.
+ *
+ * The squared chord of the unit sphere matching the distance is computed once, when the radius is created, so
+ * that comparing a distance to the radius costs no trigonometric call on the radius side. Radii used on every
+ * location should be kept in constants or fields rather than created per comparison.
+ */
+public final class Radius {
+	private final double miles;
+	private final double chordSquared;
+
+	private Radius(double miles) {
+		this.miles = miles;
+		this.chordSquared = GreatCircle.chordSquaredOf(miles);
+	}
+
+	/**
+	 * @param miles the distance in statute miles
+	 * @return the radius
+	 */
+	public static Radius ofMiles(double miles) {
+		return new Radius(miles);
+	}
+
+	/**
+	 * @return the distance in statute miles
+	 */
+	public double miles() {
+		return miles;
+	}
+
+	/**
+	 * @return the squared chord of the unit sphere matching the distance, at most
+	 * {@link GreatCircle#MAX_CHORD_SQUARED}
+	 */
+	public double chordSquared() {
+		return chordSquared;
+	}
+
+	@Override
+	public String toString() {
+		return miles + " mi";
+	}
+}
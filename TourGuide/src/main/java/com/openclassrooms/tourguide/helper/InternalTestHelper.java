@@ -4,6 +4,8 @@ public class InternalTestHelper {
 
 	// Set this default up to 100,000 for testing
 	private static int internalUserNumber = 100;
+	// Seed of the generated users, the same seed generating the same users
+	private static long internalUserSeed = 42;
 	
 	public static void setInternalUserNumber(int internalUserNumber) {
 		InternalTestHelper.internalUserNumber = internalUserNumber;
@@ -12,4 +14,12 @@ public class InternalTestHelper {
 	public static int getInternalUserNumber() {
 		return internalUserNumber;
 	}
+
+	public static void setInternalUserSeed(long internalUserSeed) {
+		InternalTestHelper.internalUserSeed = internalUserSeed;
+	}
+
+	public static long getInternalUserSeed() {
+		return internalUserSeed;
+	}
 }
@@ -0,0 +1,106 @@
+package com.openclassrooms.tourguide.helper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.user.HistorySettings;
+import com.openclassrooms.tourguide.user.User;
+
+/**
+ * Generates the internal test users, in parallel.
+ *
+ * Each user gets its own {@link SplittableRandom}, seeded from the seed of the generator and the index of the
+ * user, so the same seed always generates the same users whatever the number of threads, and no random
+ * generator is shared between threads. The ids are drawn from it too, instead of the contended
+ * {@link java.security.SecureRandom} behind {@link UUID#randomUUID()}.
+ */
+public class InternalUserGenerator {
+	private static final int LOCATIONS_PER_USER = 3;
+	private static final int HISTORY_DAYS = 30;
+	private static final double MAX_LATITUDE = 85.05112878;
+
+	private final long seed;
+	private final Instant now;
+	private final HistorySettings historySettings;
+
+	/**
+	 * @param seed the seed of the generated users
+	 */
+	public InternalUserGenerator(long seed) {
+		this(seed, Instant.now());
+	}
+
+	/**
+	 * @param seed the seed of the generated users
+	 * @param now the end of the period the generated locations were visited in
+	 */
+	public InternalUserGenerator(long seed, Instant now) {
+		this(seed, now, HistorySettings.DEFAULT);
+	}
+
+	/**
+	 * @param seed the seed of the generated users
+	 * @param now the end of the period the generated locations were visited in
+	 * @param historySettings the bounds of the visited locations history of the generated users
+	 */
+	public InternalUserGenerator(long seed, Instant now, HistorySettings historySettings) {
+		this.seed = seed;
+		this.now = now;
+		this.historySettings = historySettings;
+	}
+
+	/**
+	 * Generates the users from 0 until the count, in parallel. The consumer is called from several threads.
+	 *
+	 * @param count the number of users
+	 * @param consumer called with each user
+	 */
+	public void generate(int count, Consumer<User> consumer) {
+		IntStream.range(0, count).parallel().mapToObj(this::generate).forEach(consumer);
+	}
+
+	/**
+	 * Generates a user with 3 random visited locations within the past 30 days.
+	 *
+	 * @param index the index of the user, which only depends on the seed and the index
+	 * @return the user named internalUser followed by the index
+	 */
+	public User generate(int index) {
+		SplittableRandom random = new SplittableRandom(mix(seed + index * 0x9E3779B97F4A7C15L));
+		String userName = "internalUser" + index;
+		User user = new User(randomUuid(random), userName, "000", userName + "@tourGuide.com", historySettings);
+		for (int i = 0; i < LOCATIONS_PER_USER; i++) {
+			Location location = new Location(random.nextDouble(-MAX_LATITUDE, MAX_LATITUDE),
+					random.nextDouble(-180, 180));
+			Date timeVisited = Date.from(now.minus(Duration.ofDays(random.nextInt(HISTORY_DAYS))));
+			user.addToVisitedLocations(new VisitedLocation(user.getUserId(), location, timeVisited));
+		}
+		return user;
+	}
+
+	/**
+	 * Version 4 UUID made of random bits.
+	 */
+	private static UUID randomUuid(SplittableRandom random) {
+		long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+		long leastSigBits = (random.nextLong() & ~0xC000000000000000L) | 0x8000000000000000L;
+		return new UUID(mostSigBits, leastSigBits);
+	}
+
+	/**
+	 * Spreads consecutive seeds over the whole range, so that neighbouring users get unrelated streams.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
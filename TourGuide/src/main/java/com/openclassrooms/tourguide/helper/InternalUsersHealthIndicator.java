@@ -0,0 +1,42 @@
+package com.openclassrooms.tourguide.helper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.openclassrooms.tourguide.service.TourGuideService;
+
+/**
+ * Reports the loading of the internal test users as the {@code internalUsers} health component: out of service
+ * while they are being generated, up once every user is stored, down if the loading failed. It is part of the
+ * readiness group, so the application only accepts traffic once its users are loaded.
+ */
+@Component
+public class InternalUsersHealthIndicator implements HealthIndicator {
+	private final TourGuideService tourGuideService;
+
+	public InternalUsersHealthIndicator(TourGuideService tourGuideService) {
+		this.tourGuideService = tourGuideService;
+	}
+
+	@Override
+	public Health health() {
+		CompletableFuture<Void> loaded = tourGuideService.getInternalUsersLoaded();
+		Health.Builder health;
+		if (!loaded.isDone()) {
+			health = Health.outOfService();
+		} else if (loaded.isCompletedExceptionally()) {
+			Throwable failure = loaded.handle((ignored, e) -> e).join();
+			health = Health.down().withException(
+					failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+		} else {
+			health = Health.up();
+		}
+		return health.withDetail("users", tourGuideService.getUserRepository().count())
+				.withDetail("expected", InternalTestHelper.getInternalUserNumber())
+				.build();
+	}
+}
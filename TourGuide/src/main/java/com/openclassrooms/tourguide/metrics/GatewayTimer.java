@@ -0,0 +1,42 @@
+package com.openclassrooms.tourguide.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times the calls of one method of a vendor library, as {@value #NAME} tagged with the gateway, the method
+ * and whether the call succeeded or failed.
+ */
+final class GatewayTimer {
+	static final String NAME = "tourguide.gateway.latency";
+
+	private final Timer success;
+	private final Timer failure;
+
+	GatewayTimer(MeterRegistry registry, String gateway, String method) {
+		this.success = timer(registry, gateway, method, "success");
+		this.failure = timer(registry, gateway, method, "failure");
+	}
+
+	<T> T record(Supplier<T> call) {
+		long start = System.nanoTime();
+		try {
+			T result = call.get();
+			success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return result;
+		} catch (RuntimeException | Error e) {
+			failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+	}
+
+	private static Timer timer(MeterRegistry registry, String gateway, String method, String outcome) {
+		return Timer.builder(NAME)
+				.description("Latency of the calls to the vendor libraries")
+				.tags("gateway", gateway, "method", method, "outcome", outcome)
+				.register(registry);
+	}
+}
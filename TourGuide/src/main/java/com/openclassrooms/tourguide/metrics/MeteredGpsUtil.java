@@ -0,0 +1,39 @@
+package com.openclassrooms.tourguide.metrics;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+
+/**
+ * {@link GpsUtil} timing the calls of another one.
+ */
+public class MeteredGpsUtil extends GpsUtil {
+	private final GpsUtil gpsUtil;
+	private final GatewayTimer userLocationTimer;
+	private final GatewayTimer attractionsTimer;
+
+	/**
+	 * @param gpsUtil the GPS utility whose calls are timed
+	 * @param registry the registry of the timers
+	 */
+	public MeteredGpsUtil(GpsUtil gpsUtil, MeterRegistry registry) {
+		this.gpsUtil = gpsUtil;
+		this.userLocationTimer = new GatewayTimer(registry, "gpsUtil", "getUserLocation");
+		this.attractionsTimer = new GatewayTimer(registry, "gpsUtil", "getAttractions");
+	}
+
+	@Override
+	public VisitedLocation getUserLocation(UUID userId) {
+		return userLocationTimer.record(() -> gpsUtil.getUserLocation(userId));
+	}
+
+	@Override
+	public List<Attraction> getAttractions() {
+		return attractionsTimer.record(gpsUtil::getAttractions);
+	}
+}
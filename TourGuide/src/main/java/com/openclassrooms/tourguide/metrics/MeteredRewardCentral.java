@@ -0,0 +1,29 @@
+package com.openclassrooms.tourguide.metrics;
+
+import java.util.UUID;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import rewardCentral.RewardCentral;
+
+/**
+ * {@link RewardCentral} timing the calls of another one.
+ */
+public class MeteredRewardCentral extends RewardCentral {
+	private final RewardCentral rewardCentral;
+	private final GatewayTimer rewardPointsTimer;
+
+	/**
+	 * @param rewardCentral the reward points provider whose calls are timed
+	 * @param registry the registry of the timers
+	 */
+	public MeteredRewardCentral(RewardCentral rewardCentral, MeterRegistry registry) {
+		this.rewardCentral = rewardCentral;
+		this.rewardPointsTimer = new GatewayTimer(registry, "rewardCentral", "getAttractionRewardPoints");
+	}
+
+	@Override
+	public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+		return rewardPointsTimer.record(() -> rewardCentral.getAttractionRewardPoints(attractionId, userId));
+	}
+}
@@ -0,0 +1,33 @@
+package com.openclassrooms.tourguide.metrics;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import tripPricer.Provider;
+import tripPricer.TripPricer;
+
+/**
+ * {@link TripPricer} timing the calls of another one.
+ */
+public class MeteredTripPricer extends TripPricer {
+	private final TripPricer tripPricer;
+	private final GatewayTimer priceTimer;
+
+	/**
+	 * @param tripPricer the trip deals provider whose calls are timed
+	 * @param registry the registry of the timers
+	 */
+	public MeteredTripPricer(TripPricer tripPricer, MeterRegistry registry) {
+		this.tripPricer = tripPricer;
+		this.priceTimer = new GatewayTimer(registry, "tripPricer", "getPrice");
+	}
+
+	@Override
+	public List<Provider> getPrice(String apiKey, UUID attractionId, int adults, int children, int nightsStay,
+			int rewardsPoints) {
+		return priceTimer.record(
+				() -> tripPricer.getPrice(apiKey, attractionId, adults, children, nightsStay, rewardsPoints));
+	}
+}
@@ -0,0 +1,159 @@
+package com.openclassrooms.tourguide.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.gateway.Lane;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.tracker.Tracker;
+import com.openclassrooms.tourguide.tracker.TrackerCycle;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+
+/**
+ * Publishes the statistics the components already keep: users, GPS permit waits, reward evaluations,
+ * tracker cycles, tracking pipeline and executor queues. The meters read the components when they are
+ * scraped, so the hot paths only pay for the counters they already update.
+ */
+public class TourGuideMetrics implements MeterBinder {
+	private final TourGuideService tourGuideService;
+	private final GpsGateway gpsGateway;
+	private final List<BoundedExecutor> executors;
+
+	/**
+	 * @param tourGuideService the service whose users, tracker, pipeline and rewards are published
+	 * @param gpsGateway the gateway whose permit waits are published
+	 * @param executors the executors whose queues are published
+	 */
+	public TourGuideMetrics(TourGuideService tourGuideService, GpsGateway gpsGateway, List<BoundedExecutor> executors) {
+		this.tourGuideService = tourGuideService;
+		this.gpsGateway = gpsGateway;
+		this.executors = List.copyOf(executors);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("tourguide.users", tourGuideService, service -> service.getUserRepository().count())
+				.description("Users managed by the application")
+				.register(registry);
+		bindGpsGateway(registry);
+		bindRewards(registry, tourGuideService.getRewardsService());
+		bindTracker(registry, tourGuideService.tracker);
+		bindTrackingPipeline(registry, tourGuideService.getTrackingPipeline());
+		executors.forEach(executor -> bindExecutor(registry, executor));
+	}
+
+	private void bindGpsGateway(MeterRegistry registry) {
+		for (Lane lane : Lane.values()) {
+			String tag = lane.name().toLowerCase(Locale.ROOT);
+			FunctionTimer.builder("tourguide.gps.permit.wait", gpsGateway,
+							gateway -> gateway.getStatistics(lane).permits(),
+							gateway -> gateway.getStatistics(lane).totalWait().toNanos(), TimeUnit.NANOSECONDS)
+					.description("Time spent waiting for a GPS permit")
+					.tag("lane", tag)
+					.register(registry);
+			TimeGauge.builder("tourguide.gps.permit.wait.max", gpsGateway, TimeUnit.NANOSECONDS,
+							gateway -> gateway.getStatistics(lane).maxWait().toNanos())
+					.description("Longest wait for a GPS permit")
+					.tag("lane", tag)
+					.register(registry);
+			Gauge.builder("tourguide.gps.permit.waiting", gpsGateway,
+							gateway -> gateway.getStatistics(lane).waiting())
+					.description("Callers waiting for a GPS permit")
+					.tag("lane", tag)
+					.register(registry);
+		}
+	}
+
+	private static void bindRewards(MeterRegistry registry, RewardsService rewardsService) {
+		FunctionCounter.builder("tourguide.rewards.evaluated", rewardsService, RewardsService::getEvaluatedUserCount)
+				.description("Reward evaluations of users with new locations")
+				.register(registry);
+		FunctionCounter.builder("tourguide.rewards.granted", rewardsService, RewardsService::getGrantedRewardCount)
+				.description("Rewards granted to the users")
+				.register(registry);
+	}
+
+	private static void bindTracker(MeterRegistry registry, Tracker tracker) {
+		FunctionCounter.builder("tourguide.tracker.cycles", tracker, Tracker::getCompletedCycles)
+				.description("Completed revolutions of the tracker wheel")
+				.register(registry);
+		FunctionCounter.builder("tourguide.tracker.overruns", tracker, Tracker::getSkippedTicks)
+				.description("Ticks falling while the users of the previous ones were still tracked")
+				.tag("policy", "skip")
+				.register(registry);
+		FunctionCounter.builder("tourguide.tracker.overruns", tracker, Tracker::getCoalescedTicks)
+				.description("Ticks falling while the users of the previous ones were still tracked")
+				.tag("policy", "coalesce")
+				.register(registry);
+		FunctionCounter.builder("tourguide.tracker.users", tracker, Tracker::getTrackedUsers)
+				.description("Users tracked by the tracker")
+				.tag("outcome", "success")
+				.register(registry);
+		FunctionCounter.builder("tourguide.tracker.users", tracker, Tracker::getFailedUsers)
+				.description("Users tracked by the tracker")
+				.tag("outcome", "failure")
+				.register(registry);
+		lastCycleTimeGauge(registry, tracker, "tourguide.tracker.cycle.duration", "Duration of the last tracker cycle",
+				TrackerCycle::duration);
+		lastCycleTimeGauge(registry, tracker, "tourguide.tracker.cycle.lag",
+				"Longest delay between a tick and the tracking of its users during the last cycle", TrackerCycle::lag);
+		Gauge.builder("tourguide.tracker.cycle.users", tracker, t -> lastCycle(t, TrackerCycle::users))
+				.description("Users tracked during the last tracker cycle")
+				.register(registry);
+	}
+
+	private static void lastCycleTimeGauge(MeterRegistry registry, Tracker tracker, String name, String description,
+			Function<TrackerCycle, Duration> duration) {
+		TimeGauge.builder(name, tracker, TimeUnit.NANOSECONDS,
+						t -> lastCycle(t, cycle -> duration.apply(cycle).toNanos()))
+				.description(description)
+				.register(registry);
+	}
+
+	private static double lastCycle(Tracker tracker, Function<TrackerCycle, Number> value) {
+		TrackerCycle cycle = tracker.getLastCycle();
+		return cycle == null ? 0 : value.apply(cycle).doubleValue();
+	}
+
+	private static void bindTrackingPipeline(MeterRegistry registry, TrackingPipeline pipeline) {
+		FunctionCounter.builder("tourguide.tracking.users", pipeline, TrackingPipeline::getTrackedCount)
+				.description("Users which went through the tracking pipeline")
+				.tag("outcome", "success")
+				.register(registry);
+		FunctionCounter.builder("tourguide.tracking.users", pipeline, TrackingPipeline::getFailedCount)
+				.description("Users which went through the tracking pipeline")
+				.tag("outcome", "failure")
+				.register(registry);
+		Gauge.builder("tourguide.tracking.sink.queue.depth", pipeline, TrackingPipeline::getSinkQueueDepth)
+				.description("Evaluated locations waiting for the sink of the tracking pipeline")
+				.register(registry);
+	}
+
+	private static void bindExecutor(MeterRegistry registry, BoundedExecutor executor) {
+		Gauge.builder("tourguide.executor.queue.depth", executor, BoundedExecutor::getQueueDepth)
+				.description("Tasks waiting for a worker")
+				.tag("executor", executor.getName())
+				.register(registry);
+		Gauge.builder("tourguide.executor.active", executor, BoundedExecutor::getActiveCount)
+				.description("Tasks running")
+				.tag("executor", executor.getName())
+				.register(registry);
+		FunctionCounter.builder("tourguide.executor.rejected", executor, BoundedExecutor::getRejectedTaskCount)
+				.description("Tasks rejected or discarded because the executor was saturated")
+				.tag("executor", executor.getName())
+				.register(registry);
+	}
+}
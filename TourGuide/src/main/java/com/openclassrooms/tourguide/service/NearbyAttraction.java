@@ -0,0 +1,31 @@
+package com.openclassrooms.tourguide.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class NearbyAttraction {
+    private String attractionName;
+    private double attractionLatitude;
+    private double attractionLongitude;
+    private double userLatitude;
+    private double userLongitude;
+    private double distance;
+    // 0 unless the status is AVAILABLE
+    private int rewardPoints;
+    private RewardPointsStatus rewardPointsStatus;
+
+    public enum RewardPointsStatus {
+        /** The reward points lookup completed before the request deadline. */
+        AVAILABLE,
+        /** The reward points lookup did not complete before the request deadline; it keeps running. */
+        PENDING,
+        /** The reward points lookup failed. */
+        FAILED
+    }
+}
@@ -1,13 +1,18 @@
 package com.openclassrooms.tourguide.service;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import gpsUtil.GpsUtil;
@@ -15,28 +20,139 @@ import gpsUtil.location.Attraction;
 import gpsUtil.location.Location;
 import gpsUtil.location.VisitedLocation;
 import rewardCentral.RewardCentral;
+import com.openclassrooms.tourguide.attraction.AttractionCatalog;
+import com.openclassrooms.tourguide.attraction.AttractionIndex;
+import com.openclassrooms.tourguide.cache.ExpiringCache;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.gateway.RewardCentralGateway;
+import com.openclassrooms.tourguide.gateway.RewardPointsGateway;
+import com.openclassrooms.tourguide.gateway.RewardPointsKey;
+import com.openclassrooms.tourguide.geo.GreatCircle;
+import com.openclassrooms.tourguide.geo.Radius;
+import com.openclassrooms.tourguide.user.RewardCheckpoint;
 import com.openclassrooms.tourguide.user.User;
 import com.openclassrooms.tourguide.user.UserReward;
 
 /**
  * Service responsible for calculating rewards for users based on visited locations and nearby attractions.
- * It uses an injected {@link GpsUtil} to obtain attractions and an injected {@link RewardCentral}
- * to fetch reward points for a user and an attraction.
+ * It uses an injected {@link AttractionCatalog} to obtain attractions and an injected {@link RewardPointsGateway}
+ * to fetch reward points for users and attractions.
+ * Batches of users are processed on a shared {@link BoundedExecutor}, proximity checks go through the
+ * {@link AttractionIndex} of the catalog, and reward points are memoized in an {@link ExpiringCache}. The points
+ * a user is missing are requested from the gateway in one batch.
+ * Each user keeps a {@link RewardCheckpoint}, so only the locations visited since the previous evaluation
+ * are checked, until the proximity buffer or the attraction catalog changes.
  */
 @Service
 public class RewardsService {
-    private static final double STATUTE_MILES_PER_NAUTICAL_MILE = 1.15077945;
-
     // proximity in miles
     private static final int DEFAULT_PROXIMITY_BUFFER = 10;
-    private int proximityBuffer = DEFAULT_PROXIMITY_BUFFER;
+    private volatile int proximityBuffer = DEFAULT_PROXIMITY_BUFFER;
+    private volatile Radius proximityRadius = Radius.ofMiles(DEFAULT_PROXIMITY_BUFFER);
+    // bumped when the proximity buffer changes, so that every location gets evaluated again
+    private final AtomicLong proximityBufferVersion = new AtomicLong();
     private static final int ATTRACTION_PROXIMITY_RANGE = 200;
-    private final GpsUtil gpsUtil;
-    private final RewardCentral rewardsCentral;
+    private static final Radius ATTRACTION_PROXIMITY_RADIUS = Radius.ofMiles(ATTRACTION_PROXIMITY_RANGE);
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_REWARD_POINTS_CACHE_SIZE = 100_000;
+    private static final Duration DEFAULT_REWARD_POINTS_TTL = Duration.ofHours(1);
+    private final AttractionCatalog attractionCatalog;
+    private final RewardPointsGateway rewardPointsGateway;
+    private final BoundedExecutor rewardsExecutor;
+    private final ExpiringCache<RewardPointsKey, Integer> rewardPointsCache;
+    private final List<Consumer<User>> rewardListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong evaluatedUsers = new AtomicLong();
+    private final AtomicLong grantedRewards = new AtomicLong();
 
+    /**
+     * Create a rewards service with its own attraction catalog, loaded once from the given {@link GpsUtil},
+     * its own executors, sized with {@link BoundedExecutor#defaultPoolSize()}, its own gateway batching the
+     * calls to the given {@link RewardCentral} and its own reward points cache.
+     *
+     * @param gpsUtil the GPS utility used to obtain attractions
+     * @param rewardCentral the reward points provider
+     */
     public RewardsService(GpsUtil gpsUtil, RewardCentral rewardCentral) {
-        this.gpsUtil = gpsUtil;
-        this.rewardsCentral = rewardCentral;
+        this(new AttractionCatalog(gpsUtil),
+                new RewardCentralGateway(rewardCentral, new BoundedExecutor(ExecutionMode.PLATFORM, "reward-points",
+                        BoundedExecutor.defaultPoolSize(), DEFAULT_QUEUE_CAPACITY, SaturationPolicy.ABORT)),
+                new BoundedExecutor("rewards", BoundedExecutor.defaultPoolSize(), DEFAULT_QUEUE_CAPACITY),
+                new ExpiringCache<>(DEFAULT_REWARD_POINTS_CACHE_SIZE, DEFAULT_REWARD_POINTS_TTL));
+    }
+
+    /**
+     * Create a rewards service running its batches on the given executor.
+     * The catalog and the executor are owned by the caller, which is responsible for closing them.
+     *
+     * @param attractionCatalog the catalog of attractions
+     * @param rewardPointsGateway the reward points provider
+     * @param rewardsExecutor the executor used to process batches of users
+     * @param rewardPointsCache the cache in front of the gateway
+     */
+    @Autowired
+    public RewardsService(AttractionCatalog attractionCatalog, RewardPointsGateway rewardPointsGateway,
+                          @Qualifier("rewardsExecutor") BoundedExecutor rewardsExecutor,
+                          ExpiringCache<RewardPointsKey, Integer> rewardPointsCache) {
+        this.attractionCatalog = attractionCatalog;
+        this.rewardPointsGateway = rewardPointsGateway;
+        this.rewardsExecutor = rewardsExecutor;
+        this.rewardPointsCache = rewardPointsCache;
+    }
+
+    /**
+     * @return the catalog of attractions used to compute rewards
+     */
+    public AttractionCatalog getAttractionCatalog() {
+        return attractionCatalog;
+    }
+
+    /**
+     * Spatial index over the current snapshot of the attraction catalog.
+     *
+     * @return the attraction index
+     */
+    public AttractionIndex getAttractionIndex() {
+        return attractionCatalog.getIndex();
+    }
+
+    /**
+     * @return the cache of the reward points returned by the gateway
+     */
+    public ExpiringCache<RewardPointsKey, Integer> getRewardPointsCache() {
+        return rewardPointsCache;
+    }
+
+    /**
+     * @return the executor used to process batches of users
+     */
+    public BoundedExecutor getRewardsExecutor() {
+        return rewardsExecutor;
+    }
+
+    /**
+     * @return the number of evaluations which checked new locations of a user
+     */
+    public long getEvaluatedUserCount() {
+        return evaluatedUsers.get();
+    }
+
+    /**
+     * @return the number of rewards added to the users
+     */
+    public long getGrantedRewardCount() {
+        return grantedRewards.get();
+    }
+
+    /**
+     * Register a listener called with a user whenever an evaluation added rewards to them.
+     * Listeners run on the evaluating thread and must not block.
+     *
+     * @param listener the listener
+     */
+    public void addRewardListener(Consumer<User> listener) {
+        rewardListeners.add(listener);
     }
 
     /**
@@ -46,14 +162,37 @@ public class RewardsService {
      * @param proximityBuffer proximity distance in miles
      */
     public void setProximityBuffer(int proximityBuffer) {
+        this.proximityRadius = Radius.ofMiles(proximityBuffer);
         this.proximityBuffer = proximityBuffer;
+        proximityBufferVersion.incrementAndGet();
     }
 
     /**
      * Reset the proximity buffer to its default value.
      */
     public void setDefaultProximityBuffer() {
-        proximityBuffer = DEFAULT_PROXIMITY_BUFFER;
+        setProximityBuffer(DEFAULT_PROXIMITY_BUFFER);
+    }
+
+    /**
+     * @return the proximity buffer in statute miles
+     */
+    public int getProximityBuffer() {
+        return proximityBuffer;
+    }
+
+    /**
+     * Check whether a location is within the proximity buffer of at least one attraction the user has not
+     * been rewarded for yet, i.e. whether visiting it may earn the user a reward.
+     *
+     * @param user the user
+     * @param location the location to check
+     * @return true if an attraction not yet rewarded is within the proximity buffer
+     */
+    public boolean isNearUnrewardedAttraction(User user, Location location) {
+        // the search stops at the first attraction not yet rewarded
+        return !getAttractionIndex().visitWithinDistance(location, proximityRadius,
+                (position, attraction) -> user.hasUserReward(attraction.attractionId));
     }
 
     /**
@@ -66,7 +205,7 @@ public class RewardsService {
     }
 
     /**
-     * Calculate rewards for a list of users in parallel using CompletableFuture with a custom thread pool.
+     * Calculate rewards for a list of users in parallel using CompletableFuture on the shared rewards executor.
      * This is the main method that handles both single and multiple users efficiently.
      *
      * @param users the list of users to process
@@ -76,55 +215,92 @@ public class RewardsService {
             return;
         }
 
-        List<Attraction> sharedAttractions = new ArrayList<>(gpsUtil.getAttractions());
+        // read the epoch before the index: a concurrent catalog refresh then forces a new evaluation later
+        long epoch = evaluationEpoch();
+        AttractionIndex index = getAttractionIndex();
 
         // For single user, process synchronously to avoid thread overhead
         if (users.size() == 1) {
-            processUserRewards(users.get(0), sharedAttractions);
+            processUserRewards(users.get(0), index, epoch);
             return;
         }
 
-        // For multiple users, use parallel processing with optimized pool size
-        // Use a larger pool for high-volume operations (100K+ users)
-        int poolSize = Math.max(Runtime.getRuntime().availableProcessors() * 8, 100);
-        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        // For multiple users, fan out on the long-lived rewards executor
+        List<CompletableFuture<Void>> futures = users.stream()
+            .map(user -> CompletableFuture.runAsync(() -> processUserRewards(user, index, epoch), rewardsExecutor))
+            .toList();
 
-        try {
-            List<CompletableFuture<Void>> futures = users.stream()
-                .map(user -> CompletableFuture.runAsync(() -> processUserRewards(user, sharedAttractions), executor))
-                .toList();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
 
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        } finally {
-            executor.shutdown();
-        }
+    /**
+     * Version of the reward rules: it changes whenever the proximity buffer or the attraction catalog changes.
+     */
+    private long evaluationEpoch() {
+        return proximityBufferVersion.get() + attractionCatalog.getVersion();
     }
 
     /**
-     * Process rewards for a single user using the provided list of attractions.
+     * Process rewards for a single user using the provided attraction index.
+     * Only the locations visited since the user's reward checkpoint are evaluated, or all of them when the
+     * checkpoint belongs to another epoch, and only against the attractions within the proximity buffer.
+     * Locations far from any attraction cost no allocation.
+     * The first visit of each attraction not rewarded yet is kept, and their points are fetched together.
+     * When some points cannot be fetched, the other rewards are still granted, the checkpoint is left where it
+     * was, so that the next evaluation retries, and the first failure is rethrown.
      * This method is thread-safe and optimized for both single and parallel execution.
      *
      * @param user the user for whom to compute rewards
-     * @param attractions a list of attractions to consider
+     * @param index the index of the attractions to consider
+     * @param epoch the version of the reward rules
      */
-    private void processUserRewards(User user, List<Attraction> attractions) {
-        List<VisitedLocation> userLocations = new ArrayList<>(user.getVisitedLocations());
-        List<UserReward> currentUserRewards = new ArrayList<>(user.getUserRewards());
-
-        Set<String> existingRewardAttractions = currentUserRewards.stream()
-            .map(r -> r.attraction.attractionName)
-            .collect(Collectors.toSet());
-
+    private void processUserRewards(User user, AttractionIndex index, long epoch) {
+        RewardCheckpoint checkpoint = user.getRewardCheckpoint();
+        long from = checkpoint.epoch() == epoch ? checkpoint.evaluatedLocations() : 0;
+        // read the end first: locations appended meanwhile may be evaluated twice, but never skipped
+        long end = user.getVisitedLocationHistory().size();
+        List<VisitedLocation> userLocations = user.getVisitedLocationHistory().getSince(from);
+        if (userLocations.isEmpty()) {
+            return;
+        }
+        evaluatedUsers.incrementAndGet();
+        Radius radius = proximityRadius;
+        VisitCollector collector = new VisitCollector(user);
         for (VisitedLocation visitedLocation : userLocations) {
-            for (Attraction attraction : attractions) {
-                if (!existingRewardAttractions.contains(attraction.attractionName)) {
-                    if (nearAttraction(visitedLocation, attraction)) {
-                        user.addUserReward(new UserReward(visitedLocation, attraction, getRewardPoints(attraction, user)));
-                        existingRewardAttractions.add(attraction.attractionName);
-                    }
+            collector.visitedLocation = visitedLocation;
+            index.visitWithinDistance(visitedLocation.location, radius, collector);
+        }
+        Map<UUID, Visit> visits = collector.visits;
+        boolean rewarded = false;
+        RuntimeException failure = null;
+        if (visits != null) {
+            Map<RewardPointsKey, CompletableFuture<Integer>> points = getRewardPoints(visits.values().stream()
+                    .map(visit -> keyOf(visit.attraction(), user))
+                    .toList());
+            for (Visit visit : visits.values()) {
+                int rewardPoints;
+                try {
+                    rewardPoints = points.get(keyOf(visit.attraction(), user)).join();
+                } catch (RuntimeException e) {
+                    // keep the other rewards, this attraction is evaluated again on the next pass
+                    failure = failure == null ? e : failure;
+                    continue;
+                }
+                if (user.addUserReward(new UserReward(visit.visitedLocation(), visit.attraction(), rewardPoints))) {
+                    grantedRewards.incrementAndGet();
+                    rewarded = true;
                 }
             }
         }
+        if (failure == null) {
+            user.advanceRewardCheckpoint(new RewardCheckpoint(epoch, end));
+        }
+        if (rewarded) {
+            rewardListeners.forEach(listener -> listener.accept(user));
+        }
+        if (failure != null) {
+            throw failure;
+        }
     }
 
     /**
@@ -135,60 +311,93 @@ public class RewardsService {
      * @return true if the location is within {@code ATTRACTION_PROXIMITY_RANGE} miles of the attraction
      */
     public boolean isWithinAttractionProximity(Attraction attraction, Location location) {
-        return getDistance(attraction, location) <= ATTRACTION_PROXIMITY_RANGE;
+        return getAttractionIndex().isWithin(attraction, location, ATTRACTION_PROXIMITY_RADIUS);
     }
 
     /**
-     * Determine if a visited location is near an attraction using the configured proximity buffer.
+     * Retrieve reward points from the cache, requesting the missing ones from the gateway in a single batch.
+     * Concurrent requests for the same attraction and user share a single gateway call.
      *
-     * @param visitedLocation the visited location
-     * @param attraction the attraction
-     * @return true if the distance between the visited location and the attraction is less than or equal to the proximity buffer
+     * @param keys the attractions and users
+     * @return the reward points of each key, once known
      */
-    private boolean nearAttraction(VisitedLocation visitedLocation, Attraction attraction) {
-        return getDistance(attraction, visitedLocation.location) <= proximityBuffer;
+    private Map<RewardPointsKey, CompletableFuture<Integer>> getRewardPoints(Collection<RewardPointsKey> keys) {
+        return rewardPointsCache.getAll(keys, rewardPointsGateway::getPointsAsync);
+    }
+
+    private static RewardPointsKey keyOf(Attraction attraction, User user) {
+        return new RewardPointsKey(attraction.attractionId, user.getUserId());
     }
 
     /**
-     * Retrieve reward points for an attraction and a user by delegating to RewardCentral.
+     * Public accessor for reward points for an attraction and a user.
      *
      * @param attraction the attraction
      * @param user the user
-     * @return reward points
+     * @return the points awarded for this attraction to this user
      */
-    private int getRewardPoints(Attraction attraction, User user) {
-        return rewardsCentral.getAttractionRewardPoints(attraction.attractionId, user.getUserId());
+    public int getAttractionRewardPoints(Attraction attraction, User user) {
+        RewardPointsKey key = keyOf(attraction, user);
+        return getRewardPoints(List.of(key)).get(key).join();
     }
 
     /**
-     * Public accessor for reward points for an attraction and a user.
+     * Asynchronous accessor for the reward points of several attractions for a user.
+     * The points missing from the cache are requested from the gateway in a single batch.
      *
-     * @param attraction the attraction
+     * @param attractions the attractions
      * @param user the user
-     * @return the points awarded for this attraction to this user
+     * @return the points awarded for each attraction to this user, once known, in the order of the attractions
      */
-    public int getAttractionRewardPoints(Attraction attraction, User user) {
-        return getRewardPoints(attraction, user);
+    public List<CompletableFuture<Integer>> getAttractionRewardPointsAsync(List<Attraction> attractions, User user) {
+        Map<RewardPointsKey, CompletableFuture<Integer>> points = getRewardPoints(attractions.stream()
+                .map(attraction -> keyOf(attraction, user))
+                .toList());
+        return attractions.stream()
+                .map(attraction -> points.get(keyOf(attraction, user)))
+                .toList();
     }
 
     /**
-     * Compute the distance in statute miles between two locations using the spherical law of cosines.
+     * Compute the great-circle distance in statute miles between two locations.
+     * Prefer {@link GreatCircle#isWithin(Location, Location, Radius)} to compare a distance with a radius.
      *
      * @param loc1 first location
      * @param loc2 second location
      * @return distance in statute miles
      */
     public double getDistance(Location loc1, Location loc2) {
-        double lat1 = Math.toRadians(loc1.latitude);
-        double lon1 = Math.toRadians(loc1.longitude);
-        double lat2 = Math.toRadians(loc2.latitude);
-        double lon2 = Math.toRadians(loc2.longitude);
+        return GreatCircle.distance(loc1, loc2);
+    }
 
-        double angle = Math.acos(Math.sin(lat1) * Math.sin(lat2)
-                               + Math.cos(lat1) * Math.cos(lat2) * Math.cos(lon1 - lon2));
+    private record Visit(VisitedLocation visitedLocation, Attraction attraction) {
+    }
+
+    /**
+     * Keeps the first visit of each attraction not rewarded yet, reused for every location of an evaluation.
+     * Nothing is allocated until an attraction is found.
+     */
+    private static final class VisitCollector implements AttractionIndex.Visitor {
+        private final User user;
+        private VisitedLocation visitedLocation;
+        private Map<UUID, Visit> visits;
+
+        VisitCollector(User user) {
+            this.user = user;
+        }
 
-        double nauticalMiles = 60 * Math.toDegrees(angle);
-        return STATUTE_MILES_PER_NAUTICAL_MILE * nauticalMiles;
+        @Override
+        public boolean visit(int position, Attraction attraction) {
+            if (!user.hasUserReward(attraction.attractionId)) {
+                if (visits == null) {
+                    visits = new LinkedHashMap<>();
+                }
+                if (!visits.containsKey(attraction.attractionId)) {
+                    visits.put(attraction.attractionId, new Visit(visitedLocation, attraction));
+                }
+            }
+            return true;
+        }
     }
 
 }
@@ -1,18 +1,39 @@
 package com.openclassrooms.tourguide.service;
 
+import com.openclassrooms.tourguide.attraction.AttractionDistance;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.concurrent.SingleFlight;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.gateway.Lane;
 import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.helper.InternalUserGenerator;
+import com.openclassrooms.tourguide.service.NearbyAttraction.RewardPointsStatus;
 import com.openclassrooms.tourguide.tracker.Tracker;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.HistorySettings;
+import com.openclassrooms.tourguide.user.InMemoryUserRepository;
 import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserPreferences;
+import com.openclassrooms.tourguide.user.UserRepository;
 import com.openclassrooms.tourguide.user.UserReward;
 
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import gpsUtil.GpsUtil;
@@ -33,34 +54,122 @@ import tripPricer.TripPricer;
 @Service
 public class TourGuideService {
 	private Logger logger = LoggerFactory.getLogger(TourGuideService.class);
-	private final GpsUtil gpsUtil;
+	private final GpsGateway gpsGateway;
+	private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+	private static final int DEFAULT_PREFETCH_POOL_SIZE = 4;
+	private static final int NEARBY_ATTRACTIONS_COUNT = 5;
 	private final RewardsService rewardsService;
-	private final TripPricer tripPricer = new TripPricer();
+	private final UserRepository userRepository;
+	private final TrackingPipeline trackingPipeline;
+	private final BoundedExecutor requestExecutor;
+	private final TripDealService tripDealService;
+	private final HistorySettings historySettings;
+	// one per lane, so that a request never waits for a lookup queued behind the tracker
+	private final SingleFlight<UUID, VisitedLocation> interactiveLookups = new SingleFlight<>();
+	private final SingleFlight<UUID, VisitedLocation> backgroundLookups = new SingleFlight<>();
 	public final Tracker tracker;
+	private final CompletableFuture<Void> internalUsersLoaded;
 	boolean testMode = true;
 
 	/**
 	 * Constructs a new TourGuideService with the specified GPS utility and rewards service.
+	 * Users are stored in memory. Batches of users are tracked through a pipeline fetching their locations
+	 * on a dedicated executor of platform threads, and interactive requests are fanned out on another one.
+	 *
+	 * The internal test users are loaded before the constructor returns.
 	 *
 	 * @param gpsUtil the GPS utility for location tracking
 	 * @param rewardsService the service for calculating user rewards
 	 */
 	public TourGuideService(GpsUtil gpsUtil, RewardsService rewardsService) {
-		this.gpsUtil = gpsUtil;
+		this(new GpsGateway(gpsUtil), rewardsService);
+		internalUsersLoaded.join();
+	}
+
+	private TourGuideService(GpsGateway gpsGateway, RewardsService rewardsService) {
+		this(gpsGateway, rewardsService, new BoundedExecutor(ExecutionMode.PLATFORM, "requests",
+				BoundedExecutor.defaultPoolSize(), DEFAULT_QUEUE_CAPACITY, SaturationPolicy.ABORT));
+	}
+
+	private TourGuideService(GpsGateway gpsGateway, RewardsService rewardsService, BoundedExecutor requestExecutor) {
+		this(gpsGateway, rewardsService, new InMemoryUserRepository(),
+				new TrackingPipeline(gpsGateway, rewardsService,
+						new BoundedExecutor("tracking", BoundedExecutor.defaultPoolSize(), DEFAULT_QUEUE_CAPACITY)),
+				requestExecutor, TrackerSettings.DEFAULT, new TripDealService(new TripPricer(), requestExecutor,
+						new BoundedExecutor(ExecutionMode.PLATFORM, "trip-deal-prefetch", DEFAULT_PREFETCH_POOL_SIZE,
+								DEFAULT_QUEUE_CAPACITY, SaturationPolicy.DISCARD)));
+	}
+
+	/**
+	 * Constructs a new TourGuideService running its concurrent work on the given pipeline and executor.
+	 * They are owned by the caller, which is responsible for shutting them down.
+	 * The internal test users are loaded in the background, see {@link #getInternalUsersLoaded()}.
+	 *
+	 * @param gpsGateway the gateway to the GPS utility, shared with the tracking pipeline
+	 * @param rewardsService the service for calculating user rewards
+	 * @param userRepository the storage of the users
+	 * @param trackingPipeline the pipeline used to track batches of users
+	 * @param requestExecutor the executor used to fan out the gateway calls of interactive requests. It should
+	 * reject the calls it cannot take, see {@link SaturationPolicy#ABORT}, rather than run them on the request
+	 * thread
+	 * @param trackerSettings the schedule of the tracker
+	 * @param tripDealService the service serving the trip deals, prefetched when the rewards of a user who asked
+	 * for trip deals before change
+	 */
+	public TourGuideService(GpsGateway gpsGateway, RewardsService rewardsService, UserRepository userRepository,
+			TrackingPipeline trackingPipeline, BoundedExecutor requestExecutor, TrackerSettings trackerSettings,
+			TripDealService tripDealService) {
+		this(gpsGateway, rewardsService, userRepository, trackingPipeline, requestExecutor, trackerSettings,
+				tripDealService, HistorySettings.DEFAULT);
+	}
+
+	/**
+	 * Constructs a new TourGuideService, the internal test users keeping the given visited locations history.
+	 *
+	 * @param gpsGateway the gateway to the GPS utility, shared with the tracking pipeline
+	 * @param rewardsService the service for calculating user rewards
+	 * @param userRepository the storage of the users
+	 * @param trackingPipeline the pipeline used to track batches of users
+	 * @param requestExecutor the executor used to fan out the gateway calls of interactive requests, see
+	 * {@link #TourGuideService(GpsGateway, RewardsService, UserRepository, TrackingPipeline, BoundedExecutor,
+	 * TrackerSettings, TripDealService)}
+	 * @param trackerSettings the schedule of the tracker
+	 * @param tripDealService the service serving the trip deals
+	 * @param historySettings the bounds of the visited locations history of the internal test users
+	 */
+	@Autowired
+	public TourGuideService(GpsGateway gpsGateway, RewardsService rewardsService, UserRepository userRepository,
+			TrackingPipeline trackingPipeline,
+			@Qualifier("requestExecutor") BoundedExecutor requestExecutor, TrackerSettings trackerSettings,
+			TripDealService tripDealService, HistorySettings historySettings) {
+		this.gpsGateway = gpsGateway;
 		this.rewardsService = rewardsService;
+		this.userRepository = userRepository;
+		this.trackingPipeline = trackingPipeline;
+		this.requestExecutor = requestExecutor;
+		this.tripDealService = tripDealService;
+		this.historySettings = historySettings;
+		rewardsService.addRewardListener(tripDealService::prefetchIfRequested);
 		
 		Locale.setDefault(Locale.US);
 
+		tracker = new Tracker(this, trackerSettings);
 		if (testMode) {
 			logger.info("TestMode enabled");
-			logger.debug("Initializing users");
-			initializeInternalUsers();
-			logger.debug("Finished initializing users");
+			internalUsersLoaded = loadInternalUsers();
+		} else {
+			internalUsersLoaded = CompletableFuture.completedFuture(null);
 		}
-		tracker = new Tracker(this);
 		addShutDownHook();
 	}
 
+	/**
+	 * @return a future completed once the internal test users are stored and tracked
+	 */
+	public CompletableFuture<Void> getInternalUsersLoaded() {
+		return internalUsersLoaded;
+	}
+
 	/**
 	 * Retrieves all rewards earned by the specified user.
 	 *
@@ -79,71 +188,142 @@ public class TourGuideService {
 	 * @return the user's current or last visited location
 	 */
 	public VisitedLocation getUserLocation(User user) {
-		VisitedLocation visitedLocation = (!user.getVisitedLocations().isEmpty()) ? user.getLastVisitedLocation()
-				: trackUserLocation(user);
-		return visitedLocation;
+		VisitedLocation visitedLocation = user.getLastVisitedLocation();
+		return visitedLocation != null ? visitedLocation : trackUserLocation(user);
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getUserLocation(User)}. When the user has no location yet,
+	 * the GpsUtil call runs on the request executor.
+	 *
+	 * @param user the user whose location to retrieve
+	 * @return the user's current or last visited location, failed with a {@link RejectedExecutionException}
+	 * if the request executor is saturated
+	 */
+	public CompletableFuture<VisitedLocation> getUserLocationAsync(User user) {
+		VisitedLocation visitedLocation = user.getLastVisitedLocation();
+		if (visitedLocation != null) {
+			return CompletableFuture.completedFuture(visitedLocation);
+		}
+		return supplyOnRequestExecutor(() -> trackUserLocation(user));
+	}
+
+	/**
+	 * Runs a gateway call of an interactive request on the request executor.
+	 *
+	 * @return the result of the call, failed with a {@link RejectedExecutionException} if the request executor
+	 * is saturated
+	 */
+	private <T> CompletableFuture<T> supplyOnRequestExecutor(Supplier<T> call) {
+		try {
+			return CompletableFuture.supplyAsync(call, requestExecutor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
 	}
 
 	/**
-	 * Retrieves a user by their username from the internal user map.
+	 * Retrieves a user by their username from the user repository.
 	 *
 	 * @param userName the username to search for
 	 * @return the user with the specified username, or null if not found
 	 */
 	public User getUser(String userName) {
-		return internalUserMap.get(userName);
+		return userRepository.findByUserName(userName).orElse(null);
 	}
 
 	/**
-	 * Retrieves all users currently managed by the system.
+	 * Retrieves a copy of all users currently managed by the system.
+	 * Components walking through every user should iterate {@link #getUserRepository()} instead.
 	 *
 	 * @return a list of all users
 	 */
 	public List<User> getAllUsers() {
-		return new ArrayList<>(internalUserMap.values());
+		return new ArrayList<>(userRepository.findAll());
+	}
+
+	/**
+	 * @return the storage of the users
+	 */
+	public UserRepository getUserRepository() {
+		return userRepository;
+	}
+
+	/**
+	 * @return the service calculating the rewards of the users
+	 */
+	public RewardsService getRewardsService() {
+		return rewardsService;
+	}
+
+	/**
+	 * @return the gateway through which the locations of the users are looked up
+	 */
+	public GpsGateway getGpsGateway() {
+		return gpsGateway;
+	}
+
+	/**
+	 * @return the pipeline tracking batches of users
+	 */
+	public TrackingPipeline getTrackingPipeline() {
+		return trackingPipeline;
 	}
 
 	/**
 	 * Adds a new user to the system if they don't already exist.
+	 * A new user is tracked on the next tick of the tracker rather than at the next full sweep.
 	 *
 	 * @param user the user to add to the system
 	 */
 	public void addUser(User user) {
-		if (!internalUserMap.containsKey(user.getUserName())) {
-			internalUserMap.put(user.getUserName(), user);
+		if (userRepository.addIfAbsent(user)) {
+			tracker.track(user);
 		}
 	}
 
 	/**
 	 * Generates and retrieves trip deals for the specified user based on their preferences
-	 * and accumulated reward points.
+	 * and accumulated reward points. The deals are usually served from the cache of the {@link TripDealService}.
 	 *
 	 * @param user the user for whom to generate trip deals
 	 * @return a list of available trip providers matching the user's preferences
 	 */
 	public List<Provider> getTripDeals(User user) {
-		int cumulatativeRewardPoints = user.getUserRewards().stream().mapToInt(UserReward::getRewardPoints).sum();
-		List<Provider> providers = tripPricer.getPrice(tripPricerApiKey, user.getUserId(),
-				user.getUserPreferences().getNumberOfAdults(), user.getUserPreferences().getNumberOfChildren(),
-				user.getUserPreferences().getTripDuration(), cumulatativeRewardPoints);
-
-		int desiredQuantity = user.getUserPreferences().getTicketQuantity();
-		if (providers.size() < desiredQuantity) {
-			List<Provider> extended = new java.util.ArrayList<>(providers);
-			while (extended.size() < desiredQuantity) {
-				extended.addAll(providers);
-			}
-			providers = extended.subList(0, desiredQuantity);
-		} else if (providers.size() > desiredQuantity) {
-			providers = providers.subList(0, desiredQuantity);
-		}
-
+		List<Provider> providers = tripDealService.getTripDeals(user);
 		user.setTripDeals(providers);
 		return providers;
 	}
 
+	/**
+	 * Asynchronous variant of {@link #getTripDeals(User)}, TripPricer being called on the request executor
+	 * when the deals are not cached.
+	 *
+	 * @param user the user for whom to generate trip deals
+	 * @return a list of available trip providers matching the user's preferences
+	 */
+	public CompletableFuture<List<Provider>> getTripDealsAsync(User user) {
+		return tripDealService.getTripDealsAsync(user).thenApply(providers -> {
+			user.setTripDeals(providers);
+			return providers;
+		});
+	}
+
+	/**
+	 * Updates the trip preferences of a user and prefetches the matching trip deals in the background.
+	 *
+	 * @param user the user
+	 * @param userPreferences the new preferences of the user
+	 */
+	public void updateUserPreferences(User user, UserPreferences userPreferences) {
+		user.setUserPreferences(userPreferences);
+		tripDealService.prefetch(user);
+	}
+
 	/**
 	 * Track user location for a single user.
+	 * Concurrent requests for the same user share a single GpsUtil call and reward evaluation. They never
+	 * join a lookup of the tracker, which may still be queued behind the other users of the tracker.
 	 *
 	 * @param user the user to track
 	 * @return the visited location
@@ -154,7 +334,7 @@ public class TourGuideService {
 
 	/**
 	 * Track locations for a list of users with automatic optimization.
-	 * Uses parallel processing for multiple users, synchronous for single user.
+	 * Multiple users go through the tracking pipeline, a single user is processed synchronously.
 	 *
 	 * @param users the list of users to track
 	 * @return list of visited locations in the same order as input users
@@ -169,31 +349,68 @@ public class TourGuideService {
 			return List.of(trackSingleUserLocation(users.get(0)));
 		}
 
-		// For multiple users, use parallel processing with optimized thread pool
-		int poolSize = Math.max(Runtime.getRuntime().availableProcessors() * 8, 100);
-		java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(poolSize);
+		// For multiple users, overlap the GPS calls and the reward evaluations in the tracking pipeline
+		List<CompletableFuture<VisitedLocation>> futures = users.stream()
+			.map(this::trackUserLocationInBackground)
+			.toList();
+
+		return futures.stream()
+			.map(CompletableFuture::join)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Track user location through the tracking pipeline, unless a background lookup of the user is already
+	 * in flight.
+	 *
+	 * @param user the user to track
+	 * @return the visited location, completed once the rewards have been evaluated
+	 */
+	public CompletableFuture<VisitedLocation> trackUserLocationInBackground(User user) {
+		return backgroundLookups.execute(user.getUserId(), () -> trackingPipeline.track(user));
+	}
+
+	/**
+	 * Internal method to track a single user's location on the calling thread, unless an interactive lookup
+	 * of the user is already in flight.
+	 *
+	 * @param user the user to track
+	 * @return the visited location
+	 */
+	private VisitedLocation trackSingleUserLocation(User user) {
+		return join(interactiveLookups.execute(user.getUserId(),
+				() -> CompletableFuture.completedFuture(lookUpUserLocation(user))));
+	}
 
+	/**
+	 * Waits for a future, rethrowing the runtime exception it failed with.
+	 */
+	private static <T> T join(CompletableFuture<T> future) {
 		try {
-			List<java.util.concurrent.CompletableFuture<VisitedLocation>> futures = users.stream()
-				.map(user -> java.util.concurrent.CompletableFuture.supplyAsync(() -> trackSingleUserLocation(user), executor))
-				.toList();
-
-			return futures.stream()
-				.map(java.util.concurrent.CompletableFuture::join)
-				.collect(Collectors.toList());
-		} finally {
-			executor.shutdown();
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
 		}
 	}
 
 	/**
-	 * Internal method to track a single user's location.
+	 * Looks up the location of a user and evaluates their rewards. The lookup goes through the interactive lane
+	 * of the GPS gateway, ahead of the tracker.
 	 *
 	 * @param user the user to track
 	 * @return the visited location
 	 */
-	private VisitedLocation trackSingleUserLocation(User user) {
-		VisitedLocation visitedLocation = gpsUtil.getUserLocation(user.getUserId());
+	private VisitedLocation lookUpUserLocation(User user) {
+		VisitedLocation visitedLocation;
+		try {
+			visitedLocation = gpsGateway.getUserLocation(user.getUserId(), Lane.INTERACTIVE);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the location of " + user.getUserName(), e);
+		}
 		user.addToVisitedLocations(visitedLocation);
 		rewardsService.calculateRewards(user);
 		return visitedLocation;
@@ -202,15 +419,79 @@ public class TourGuideService {
 	/**
 	 * Finds the 5 closest attractions to a given visited location.
 	 * Returns attractions sorted by distance regardless of actual proximity.
+	 * The search goes through the attraction index instead of sorting every attraction.
 	 *
 	 * @param visitedLocation the location from which to find nearby attractions
 	 * @return a list of the 5 closest attractions sorted by distance
 	 */
 	public List<Attraction> getNearByAttractions(VisitedLocation visitedLocation) {
-		return gpsUtil.getAttractions().stream()
-				.sorted(Comparator.comparingDouble(a -> rewardsService.getDistance(a, visitedLocation.location)))
-				.limit(5)
-				.collect(Collectors.toList());
+		return rewardsService.getAttractionIndex().nearest(visitedLocation.location, NEARBY_ATTRACTIONS_COUNT);
+	}
+
+	/**
+	 * Finds the 5 closest attractions to the user's location, with the reward points each of them is worth.
+	 * When the user has no location yet, it is looked up on the calling thread, like
+	 * {@link #getUserLocation(User)}, so the request executor is never involved.
+	 * The reward points lookups run concurrently. Lookups still running when the deadline passes are
+	 * reported as pending rather than awaited; they keep running and warm the reward points cache. Failed
+	 * lookups are reported as failed.
+	 *
+	 * @param user the user
+	 * @param deadline how long to wait for the reward points lookups
+	 * @return the 5 closest attractions sorted by distance
+	 */
+	public List<NearbyAttraction> getNearbyAttractions(User user, Duration deadline) {
+		return join(getNearbyAttractionsAt(user, getUserLocation(user), deadline));
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getNearbyAttractions(User, Duration)}: no thread waits for the
+	 * location or the reward points lookups. When the user has no location yet, it is looked up on the
+	 * request executor.
+	 *
+	 * @param user the user
+	 * @param deadline how long to wait for the reward points lookups once the location is known
+	 * @return the 5 closest attractions sorted by distance, failed with a {@link RejectedExecutionException}
+	 * if the location has to be looked up and the request executor is saturated
+	 */
+	public CompletableFuture<List<NearbyAttraction>> getNearbyAttractionsAsync(User user, Duration deadline) {
+		return getUserLocationAsync(user)
+				.thenCompose(visitedLocation -> getNearbyAttractionsAt(user, visitedLocation, deadline));
+	}
+
+	/**
+	 * Finds the 5 closest attractions to a known location of the user, and looks up their reward points.
+	 */
+	private CompletableFuture<List<NearbyAttraction>> getNearbyAttractionsAt(User user,
+			VisitedLocation visitedLocation, Duration deadline) {
+		List<AttractionDistance> nearest = rewardsService.getAttractionIndex()
+				.nearestWithDistance(visitedLocation.location, NEARBY_ATTRACTIONS_COUNT);
+		List<Attraction> attractions = nearest.stream().map(AttractionDistance::attraction).toList();
+		List<CompletableFuture<Integer>> rewardPoints =
+				rewardsService.getAttractionRewardPointsAsync(attractions, user);
+
+		return CompletableFuture.allOf(rewardPoints.toArray(new CompletableFuture[0]))
+				.completeOnTimeout(null, deadline.toMillis(), TimeUnit.MILLISECONDS)
+				.exceptionally(e -> {
+					logger.warn("Reward points lookup failed for {}", user.getUserName(), e);
+					return null;
+				})
+				.thenApply(ignored -> toNearbyAttractions(visitedLocation, nearest, rewardPoints));
+	}
+
+	private List<NearbyAttraction> toNearbyAttractions(VisitedLocation visitedLocation,
+			List<AttractionDistance> nearest, List<CompletableFuture<Integer>> rewardPoints) {
+		List<NearbyAttraction> result = new ArrayList<>(nearest.size());
+		for (int i = 0; i < nearest.size(); i++) {
+			Attraction attraction = nearest.get(i).attraction();
+			CompletableFuture<Integer> points = rewardPoints.get(i);
+			RewardPointsStatus status = !points.isDone() ? RewardPointsStatus.PENDING
+					: points.isCompletedExceptionally() ? RewardPointsStatus.FAILED : RewardPointsStatus.AVAILABLE;
+			result.add(new NearbyAttraction(attraction.attractionName, attraction.latitude, attraction.longitude,
+					visitedLocation.location.latitude, visitedLocation.location.longitude, nearest.get(i).miles(),
+					status == RewardPointsStatus.AVAILABLE ? points.join() : 0, status));
+		}
+		return result;
 	}
 
 	/**
@@ -253,71 +534,44 @@ public class TourGuideService {
 	 * Methods Below: For Internal Testing
 	 *
 	 **********************************************************************************/
-	private static final String tripPricerApiKey = "test-server-api-key";
 	// Database connection will be used for external users, but for testing purposes
-	// internal users are provided and stored in memory
-	private final Map<String, User> internalUserMap = new HashMap<>();
-
-	/**
-	 * Initializes internal test users for development and testing purposes.
-	 * Creates users with random location history based on the configured test user count.
-	 */
-	private void initializeInternalUsers() {
-		IntStream.range(0, InternalTestHelper.getInternalUserNumber()).forEach(i -> {
-			String userName = "internalUser" + i;
-			String phone = "000";
-			String email = userName + "@tourGuide.com";
-			User user = new User(UUID.randomUUID(), userName, phone, email);
-			generateUserLocationHistory(user);
-
-			internalUserMap.put(userName, user);
-		});
-        logger.debug("Created {} internal test users.", InternalTestHelper.getInternalUserNumber());
-	}
+	// internal users are provided and stored in the in-memory user repository
 
 	/**
-	 * Generates random location history for a test user.
-	 * Creates 3 random visited locations with random coordinates and timestamps.
+	 * Loads the internal test users on a background thread, so that the startup time does not grow with their
+	 * number.
 	 *
-	 * @param user the user for whom to generate location history
+	 * @return a future completed once every user is stored
 	 */
-	private void generateUserLocationHistory(User user) {
-		IntStream.range(0, 3).forEach(i -> {
-			user.addToVisitedLocations(new VisitedLocation(user.getUserId(),
-					new Location(generateRandomLatitude(), generateRandomLongitude()), getRandomTime()));
+	private CompletableFuture<Void> loadInternalUsers() {
+		return CompletableFuture.runAsync(this::initializeInternalUsers, runnable -> {
+			Thread thread = new Thread(runnable, "internal-users-loader");
+			thread.setDaemon(true);
+			thread.start();
+		}).whenComplete((ignored, e) -> {
+			if (e != null) {
+				logger.error("Could not initialize the internal test users", e);
+			}
 		});
 	}
 
 	/**
-	 * Generates a random longitude coordinate within valid range (-180 to 180 degrees).
-	 *
-	 * @return a random longitude value
-	 */
-	private double generateRandomLongitude() {
-		double leftLimit = -180;
-		double rightLimit = 180;
-		return leftLimit + new Random().nextDouble() * (rightLimit - leftLimit);
-	}
-
-	/**
-	 * Generates a random latitude coordinate within valid range (-85.05 to 85.05 degrees).
-	 *
-	 * @return a random latitude value
-	 */
-	private double generateRandomLatitude() {
-		double leftLimit = -85.05112878;
-		double rightLimit = 85.05112878;
-		return leftLimit + new Random().nextDouble() * (rightLimit - leftLimit);
-	}
-
-	/**
-	 * Generates a random date within the past 30 days.
-	 *
-	 * @return a random date for location history
+	 * Initializes internal test users for development and testing purposes, generated in parallel by an
+	 * {@link InternalUserGenerator} seeded from the {@link InternalTestHelper}. Each user is scheduled at its
+	 * phase of the tracker as soon as it is stored.
 	 */
-	private Date getRandomTime() {
-		LocalDateTime localDateTime = LocalDateTime.now().minusDays(new Random().nextInt(30));
-		return Date.from(localDateTime.toInstant(ZoneOffset.UTC));
+	private void initializeInternalUsers() {
+		long start = System.nanoTime();
+		int count = InternalTestHelper.getInternalUserNumber();
+		InternalUserGenerator generator = new InternalUserGenerator(InternalTestHelper.getInternalUserSeed(),
+				Instant.now(), historySettings);
+		generator.generate(count, user -> {
+			if (userRepository.addIfAbsent(user)) {
+				tracker.register(user);
+			}
+		});
+		logger.debug("Created {} internal test users in {} ms.", count,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 	}
 
 }
@@ -0,0 +1,15 @@
+package com.openclassrooms.tourguide.service;
+
+import java.util.UUID;
+
+/**
+ * Identifies the trip deals offered to a user for a set of preferences.
+ *
+ * @param userId the user identifier
+ * @param adults the number of adults
+ * @param children the number of children
+ * @param duration the duration of the trip
+ * @param rewardPointsBucket the cumulative reward points of the user, divided by the bucket width
+ */
+public record TripDealKey(UUID userId, int adults, int children, int duration, int rewardPointsBucket) {
+}
@@ -0,0 +1,190 @@
+package com.openclassrooms.tourguide.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import tripPricer.Provider;
+import tripPricer.TripPricer;
+
+import com.openclassrooms.tourguide.cache.ExpiringCache;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserPreferences;
+
+/**
+ * Service serving the trip deals of the users from memory.
+ *
+ * The providers returned by {@link TripPricer} are cached per {@link TripDealKey}: the user, the trip
+ * preferences and the cumulative reward points rounded down to a bucket, so that a few more points do not
+ * invalidate the deals. The deals are prefetched in the background when the preferences change, and when the
+ * rewards of a user who asked for deals before move to another bucket, so requests are served from the cache
+ * rather than waiting for TripPricer. Prefetches run on their own executor, which is expected to discard them
+ * once saturated ({@link SaturationPolicy#DISCARD}) so that they never hold up the requests.
+ */
+@Service
+public class TripDealService {
+	private static final String TRIP_PRICER_API_KEY = "test-server-api-key";
+	private static final int DEFAULT_REWARD_POINTS_BUCKET = 100;
+	private static final int DEFAULT_CACHE_SIZE = 100_000;
+	private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+	private final Logger logger = LoggerFactory.getLogger(TripDealService.class);
+	private final TripPricer tripPricer;
+	private final ExpiringCache<TripDealKey, List<Provider>> tripDealCache;
+	private final Executor loadExecutor;
+	private final Executor prefetchExecutor;
+	private final int rewardPointsBucket;
+
+	/**
+	 * Creates a trip deal service with its own cache, running the requests and the prefetches on the same
+	 * executor.
+	 *
+	 * @param tripPricer the trip deals provider
+	 * @param executor the executor running the TripPricer calls of the asynchronous requests and the prefetches
+	 */
+	public TripDealService(TripPricer tripPricer, Executor executor) {
+		this(tripPricer, executor, executor);
+	}
+
+	/**
+	 * Creates a trip deal service with its own cache.
+	 *
+	 * @param tripPricer the trip deals provider
+	 * @param loadExecutor the executor running the TripPricer calls of the asynchronous requests
+	 * @param prefetchExecutor the executor running the TripPricer calls of the prefetches
+	 */
+	public TripDealService(TripPricer tripPricer, Executor loadExecutor, Executor prefetchExecutor) {
+		this(tripPricer, new ExpiringCache<>(DEFAULT_CACHE_SIZE, DEFAULT_TTL), loadExecutor, prefetchExecutor,
+				DEFAULT_REWARD_POINTS_BUCKET);
+	}
+
+	/**
+	 * Creates a trip deal service.
+	 *
+	 * @param tripPricer the trip deals provider
+	 * @param tripDealCache the cache in front of {@link TripPricer}
+	 * @param loadExecutor the executor running the TripPricer calls of the asynchronous requests
+	 * @param prefetchExecutor the executor running the TripPricer calls of the prefetches
+	 * @param rewardPointsBucket the width of the reward points buckets
+	 */
+	@Autowired
+	public TripDealService(TripPricer tripPricer, ExpiringCache<TripDealKey, List<Provider>> tripDealCache,
+			@Qualifier("requestExecutor") Executor loadExecutor,
+			@Qualifier("tripDealPrefetchExecutor") Executor prefetchExecutor,
+			@Value("${tourguide.trip-deals.reward-points-bucket:100}") int rewardPointsBucket) {
+		this.tripPricer = tripPricer;
+		this.tripDealCache = tripDealCache;
+		this.loadExecutor = loadExecutor;
+		this.prefetchExecutor = prefetchExecutor;
+		this.rewardPointsBucket = Math.max(1, rewardPointsBucket);
+	}
+
+	/**
+	 * Gets the trip deals matching the preferences and reward points of a user, one per ticket.
+	 * On a cache miss, TripPricer is called on the calling thread.
+	 *
+	 * @param user the user
+	 * @return as many providers as the user wants tickets
+	 */
+	public List<Provider> getTripDeals(User user) {
+		List<Provider> providers = tripDealCache.getOrLoad(keyOf(user), this::getPrice);
+		return fill(providers, user.getUserPreferences().getTicketQuantity());
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getTripDeals(User)}, TripPricer being called on the load executor
+	 * on a cache miss.
+	 *
+	 * @param user the user
+	 * @return as many providers as the user wants tickets, failed with a
+	 * {@link java.util.concurrent.RejectedExecutionException} if the executor is saturated
+	 */
+	public CompletableFuture<List<Provider>> getTripDealsAsync(User user) {
+		int ticketQuantity = user.getUserPreferences().getTicketQuantity();
+		return tripDealCache.get(keyOf(user), key -> CompletableFuture.supplyAsync(() -> getPrice(key), loadExecutor))
+				.thenApply(providers -> fill(providers, ticketQuantity));
+	}
+
+	/**
+	 * Loads the trip deals of a user in the background, unless they are already cached. The prefetch is
+	 * dropped if the prefetch executor is saturated.
+	 *
+	 * @param user the user
+	 */
+	public void prefetch(User user) {
+		TripDealKey key = keyOf(user);
+		if (tripDealCache.contains(key)) {
+			return;
+		}
+		try {
+			// the load starts on the prefetch executor, so that a discarded prefetch leaves nothing in the cache
+			prefetchExecutor.execute(() -> {
+				try {
+					tripDealCache.getOrLoad(key, this::getPrice);
+				} catch (RuntimeException e) {
+					logger.warn("Trip deals prefetch failed for {}", user.getUserName(), e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			logger.debug("Trip deals prefetch rejected for {}", user.getUserName());
+		}
+	}
+
+	/**
+	 * Prefetches the trip deals of a user whose rewards changed, if the user asked for trip deals before.
+	 * Nothing runs unless the reward points moved to a bucket whose deals are not cached yet.
+	 *
+	 * @param user the rewarded user
+	 */
+	public void prefetchIfRequested(User user) {
+		if (!user.getTripDeals().isEmpty()) {
+			prefetch(user);
+		}
+	}
+
+	/**
+	 * @return the cache of the providers returned by {@link TripPricer}
+	 */
+	public ExpiringCache<TripDealKey, List<Provider>> getTripDealCache() {
+		return tripDealCache;
+	}
+
+	private TripDealKey keyOf(User user) {
+		UserPreferences preferences = user.getUserPreferences();
+		return new TripDealKey(user.getUserId(), preferences.getNumberOfAdults(), preferences.getNumberOfChildren(),
+				preferences.getTripDuration(), user.getCumulativeRewardPoints() / rewardPointsBucket);
+	}
+
+	/**
+	 * Calls TripPricer with the lowest reward points of the bucket, so that the cached deals do not depend on
+	 * the exact points of the user when they were loaded.
+	 */
+	private List<Provider> getPrice(TripDealKey key) {
+		return List.copyOf(tripPricer.getPrice(TRIP_PRICER_API_KEY, key.userId(), key.adults(), key.children(),
+				key.duration(), key.rewardPointsBucket() * rewardPointsBucket));
+	}
+
+	/**
+	 * Repeats the providers in turn up to the given quantity, or truncates them.
+	 */
+	private static List<Provider> fill(List<Provider> providers, int quantity) {
+		if (providers.isEmpty() || providers.size() == quantity) {
+			return providers;
+		}
+		List<Provider> filled = new ArrayList<>(quantity);
+		for (int i = 0; i < quantity; i++) {
+			filled.add(providers.get(i % providers.size()));
+		}
+		return filled;
+	}
+}
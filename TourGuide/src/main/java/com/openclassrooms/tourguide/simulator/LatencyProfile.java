@@ -0,0 +1,120 @@
+package com.openclassrooms.tourguide.simulator;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the latency of a simulated call.
+ *
+ * Profiles are written as {@code none}, {@code fixed:<duration>}, {@code uniform:<min>:<max>} or
+ * {@code lognormal:<median>:<sigma>}, optionally followed by {@code ,spike:<probability>:<duration>} to add a
+ * tail spike to a share of the calls. Durations are written as {@code 250ms}, {@code 2s}, or in ISO-8601.
+ */
+@FunctionalInterface
+public interface LatencyProfile {
+
+	/**
+	 * @param random the source of randomness of the simulator
+	 * @return the latency of the next call, in nanoseconds
+	 */
+	long sampleNanos(SplittableRandom random);
+
+	/**
+	 * @param probability the share of the calls getting the spike
+	 * @param spike the latency added to those calls
+	 * @return this profile with tail spikes
+	 */
+	default LatencyProfile withSpikes(double probability, Duration spike) {
+		if (probability < 0 || probability > 1) {
+			throw new IllegalArgumentException("The spike probability must be between 0 and 1");
+		}
+		long spikeNanos = spike.toNanos();
+		return random -> sampleNanos(random) + (random.nextDouble() < probability ? spikeNanos : 0);
+	}
+
+	static LatencyProfile none() {
+		return random -> 0;
+	}
+
+	static LatencyProfile fixed(Duration latency) {
+		long nanos = latency.toNanos();
+		return random -> nanos;
+	}
+
+	static LatencyProfile uniform(Duration min, Duration max) {
+		long minNanos = min.toNanos();
+		long maxNanos = max.toNanos();
+		if (maxNanos < minNanos) {
+			throw new IllegalArgumentException("The maximum latency must not be below the minimum");
+		}
+		return random -> minNanos == maxNanos ? minNanos : random.nextLong(minNanos, maxNanos + 1);
+	}
+
+	/**
+	 * @param median the median latency
+	 * @param sigma the standard deviation of the logarithm of the latency, which sets the length of the tail
+	 * @return a log-normal profile
+	 */
+	static LatencyProfile logNormal(Duration median, double sigma) {
+		long medianNanos = median.toNanos();
+		if (sigma < 0) {
+			throw new IllegalArgumentException("The sigma of a log-normal latency must not be negative");
+		}
+		return random -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+	}
+
+	/**
+	 * Parses a profile written as described on {@link LatencyProfile}.
+	 *
+	 * @param spec the profile
+	 * @return the parsed profile
+	 */
+	static LatencyProfile parse(String spec) {
+		String[] parts = spec.trim().split(",");
+		LatencyProfile profile = parseDistribution(parts[0].trim().split(":"));
+		for (int i = 1; i < parts.length; i++) {
+			String[] spike = parts[i].trim().split(":");
+			if (spike.length != 3 || !spike[0].equalsIgnoreCase("spike")) {
+				throw new IllegalArgumentException("Invalid latency profile: " + spec);
+			}
+			profile = profile.withSpikes(Double.parseDouble(spike[1]), parseDuration(spike[2]));
+		}
+		return profile;
+	}
+
+	private static LatencyProfile parseDistribution(String[] args) {
+		String kind = args[0].toLowerCase(Locale.ROOT);
+		if (kind.equals("none") && args.length == 1) {
+			return none();
+		} else if (kind.equals("fixed") && args.length == 2) {
+			return fixed(parseDuration(args[1]));
+		} else if (kind.equals("uniform") && args.length == 3) {
+			return uniform(parseDuration(args[1]), parseDuration(args[2]));
+		} else if (kind.equals("lognormal") && args.length == 3) {
+			return logNormal(parseDuration(args[1]), Double.parseDouble(args[2]));
+		}
+		throw new IllegalArgumentException("Invalid latency distribution: " + String.join(":", args));
+	}
+
+	private static Duration parseDuration(String value) {
+		String text = value.trim().toLowerCase(Locale.ROOT);
+		if (text.startsWith("p")) {
+			return Duration.parse(value.trim());
+		}
+		int unit = 0;
+		while (unit < text.length() && (Character.isDigit(text.charAt(unit)) || text.charAt(unit) == '.')) {
+			unit++;
+		}
+		double amount = Double.parseDouble(text.substring(0, unit));
+		long nanosPerUnit = switch (text.substring(unit)) {
+			case "ns" -> 1L;
+			case "us" -> 1_000L;
+			case "ms", "" -> 1_000_000L;
+			case "s" -> 1_000_000_000L;
+			case "m" -> 60_000_000_000L;
+			default -> throw new IllegalArgumentException("Invalid duration: " + value);
+		};
+		return Duration.ofNanos(Math.round(amount * nanosPerUnit));
+	}
+}
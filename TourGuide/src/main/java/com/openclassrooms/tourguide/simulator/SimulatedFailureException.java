@@ -0,0 +1,12 @@
+package com.openclassrooms.tourguide.simulator;
+
+/**
+ * Failure injected by a {@link Simulator}.
+ */
+public class SimulatedFailureException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public SimulatedFailureException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,73 @@
+package com.openclassrooms.tourguide.simulator;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+
+/**
+ * In-process stand-in for {@link GpsUtil}, with the latency, rate limit and failures of a {@link Simulator}.
+ *
+ * The attractions are those of GpsUtil, loaded once. The n-th location of a user only depends on the seed,
+ * the user and n, so a run with the same seed and users replays the same journeys.
+ */
+public class SimulatedGpsUtil extends GpsUtil {
+	private static final double MAX_LATITUDE = 85.05112878;
+
+	private final long seed;
+	private final Simulator simulator;
+	private final List<Attraction> attractions;
+	private final Map<UUID, AtomicLong> locationCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a simulator over the attractions of GpsUtil.
+	 *
+	 * @param seed the seed of the simulation
+	 * @param settings the behaviour of the simulated calls
+	 */
+	public SimulatedGpsUtil(long seed, SimulatorSettings settings) {
+		this(seed, settings, new GpsUtil().getAttractions());
+	}
+
+	/**
+	 * Creates a simulator over the given attractions.
+	 *
+	 * @param seed the seed of the simulation
+	 * @param settings the behaviour of the simulated calls
+	 * @param attractions the attractions returned by {@link #getAttractions()}
+	 */
+	public SimulatedGpsUtil(long seed, SimulatorSettings settings, List<Attraction> attractions) {
+		this.seed = seed;
+		this.simulator = new Simulator("GpsUtil", seed, settings);
+		this.attractions = List.copyOf(attractions);
+	}
+
+	@Override
+	public VisitedLocation getUserLocation(UUID userId) {
+		simulator.call();
+		long count = locationCounts.computeIfAbsent(userId, id -> new AtomicLong()).getAndIncrement();
+		SplittableRandom random = Simulator.randomOf(seed, userId.getMostSignificantBits(),
+				userId.getLeastSignificantBits(), count);
+		Location location = new Location(random.nextDouble(-MAX_LATITUDE, MAX_LATITUDE), random.nextDouble(-180, 180));
+		return new VisitedLocation(userId, location, new Date());
+	}
+
+	@Override
+	public List<Attraction> getAttractions() {
+		simulator.call();
+		return new ArrayList<>(attractions);
+	}
+
+	public Simulator getSimulator() {
+		return simulator;
+	}
+}
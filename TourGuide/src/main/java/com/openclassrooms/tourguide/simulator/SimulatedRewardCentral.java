@@ -0,0 +1,35 @@
+package com.openclassrooms.tourguide.simulator;
+
+import java.util.UUID;
+
+import rewardCentral.RewardCentral;
+
+/**
+ * In-process stand-in for {@link RewardCentral}, with the latency, rate limit and failures of a
+ * {@link Simulator}. The points of a user for an attraction, between 1 and 1000, only depend on the seed,
+ * the attraction and the user.
+ */
+public class SimulatedRewardCentral extends RewardCentral {
+	private final long seed;
+	private final Simulator simulator;
+
+	/**
+	 * @param seed the seed of the simulation
+	 * @param settings the behaviour of the simulated calls
+	 */
+	public SimulatedRewardCentral(long seed, SimulatorSettings settings) {
+		this.seed = seed;
+		this.simulator = new Simulator("RewardCentral", seed, settings);
+	}
+
+	@Override
+	public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+		simulator.call();
+		return Simulator.randomOf(seed, attractionId.getMostSignificantBits(), attractionId.getLeastSignificantBits(),
+				userId.getMostSignificantBits(), userId.getLeastSignificantBits()).nextInt(1, 1001);
+	}
+
+	public Simulator getSimulator() {
+		return simulator;
+	}
+}
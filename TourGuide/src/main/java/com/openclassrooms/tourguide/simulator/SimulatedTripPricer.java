@@ -0,0 +1,54 @@
+package com.openclassrooms.tourguide.simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import tripPricer.Provider;
+import tripPricer.TripPricer;
+
+/**
+ * In-process stand-in for {@link TripPricer}, with the latency, rate limit and failures of a {@link Simulator}.
+ *
+ * Like TripPricer, it returns 5 providers priced from the trip and the reward points of the user; the
+ * providers and their prices only depend on the seed and the inputs of the call.
+ */
+public class SimulatedTripPricer extends TripPricer {
+	private static final int PROVIDER_COUNT = 5;
+	private static final String[] PROVIDER_NAMES = { "Holiday Travels", "Enterprize Ventures Limited", "Sunny Days",
+			"FlyAway Trips", "United Partners Vacations", "Dream Trips", "Live Free",
+			"Dancing Waves Cruselines and Partners", "AdventureCo", "Cure-Your-Blues" };
+
+	private final long seed;
+	private final Simulator simulator;
+
+	/**
+	 * @param seed the seed of the simulation
+	 * @param settings the behaviour of the simulated calls
+	 */
+	public SimulatedTripPricer(long seed, SimulatorSettings settings) {
+		this.seed = seed;
+		this.simulator = new Simulator("TripPricer", seed, settings);
+	}
+
+	@Override
+	public List<Provider> getPrice(String apiKey, UUID attractionId, int adults, int children, int nightsStay,
+			int rewardsPoints) {
+		simulator.call();
+		SplittableRandom random = Simulator.randomOf(seed, attractionId.getMostSignificantBits(),
+				attractionId.getLeastSignificantBits(), adults, children, nightsStay, rewardsPoints);
+		List<Provider> providers = new ArrayList<>(PROVIDER_COUNT);
+		for (int i = 0; i < PROVIDER_COUNT; i++) {
+			int multiple = random.nextInt(100, 700);
+			double price = multiple * adults + multiple * (children / 3) * nightsStay + 0.99 - rewardsPoints;
+			providers.add(new Provider(new UUID(random.nextLong(), random.nextLong()),
+					PROVIDER_NAMES[random.nextInt(PROVIDER_NAMES.length)], Math.max(0, price)));
+		}
+		return providers;
+	}
+
+	public Simulator getSimulator() {
+		return simulator;
+	}
+}
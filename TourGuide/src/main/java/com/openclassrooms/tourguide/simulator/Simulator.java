@@ -0,0 +1,98 @@
+package com.openclassrooms.tourguide.simulator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.openclassrooms.tourguide.concurrent.TokenBucket;
+
+/**
+ * Simulates the cost of a call to a vendor library: rate limit, latency and failures.
+ *
+ * Latencies and failures are drawn from a single random stream seeded once, so a run replays the same
+ * sequence of draws; which caller gets which draw still depends on the thread scheduling.
+ */
+public class Simulator {
+	private final String name;
+	private final SimulatorSettings settings;
+	private final TokenBucket permits;
+	private final SplittableRandom random;
+	private final AtomicLong callCount = new AtomicLong();
+	private final AtomicLong failureCount = new AtomicLong();
+
+	/**
+	 * @param name the name of the simulated library, used in the failure messages
+	 * @param seed the seed of the random stream
+	 * @param settings the behaviour of the library
+	 */
+	public Simulator(String name, long seed, SimulatorSettings settings) {
+		this.name = name;
+		this.settings = settings;
+		this.permits = settings.permitsPerSecond() > 0 ? new TokenBucket(settings.permitsPerSecond()) : null;
+		this.random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * Waits for a permit and for the latency of the call, then fails the call if its draw says so.
+	 *
+	 * @throws SimulatedFailureException if the call is failed
+	 */
+	public void call() {
+		callCount.incrementAndGet();
+		long latencyNanos;
+		boolean failed;
+		synchronized (random) {
+			latencyNanos = settings.latency().sampleNanos(random);
+			failed = settings.errorRate() > 0 && random.nextDouble() < settings.errorRate();
+		}
+		try {
+			if (permits != null) {
+				permits.acquire();
+			}
+			if (latencyNanos > 0) {
+				TimeUnit.NANOSECONDS.sleep(latencyNanos);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(name + " call interrupted", e);
+		}
+		if (failed) {
+			failureCount.incrementAndGet();
+			throw new SimulatedFailureException(name + " call failed");
+		}
+	}
+
+	public SimulatorSettings getSettings() {
+		return settings;
+	}
+
+	/**
+	 * @return the number of calls made
+	 */
+	public long getCallCount() {
+		return callCount.get();
+	}
+
+	/**
+	 * @return the number of calls failed
+	 */
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+
+	/**
+	 * Derives a random stream from a seed and the inputs of a call, so that the same inputs get the same
+	 * outputs whatever the order of the calls.
+	 *
+	 * @param seed the seed of the simulation
+	 * @param values the inputs of the call
+	 * @return the random stream of the call
+	 */
+	static SplittableRandom randomOf(long seed, long... values) {
+		long hash = seed;
+		for (long value : values) {
+			hash = Long.rotateLeft(hash ^ (value * 0x9E3779B97F4A7C15L), 31) * 0xBF58476D1CE4E5B9L;
+		}
+		return new SplittableRandom(hash);
+	}
+}
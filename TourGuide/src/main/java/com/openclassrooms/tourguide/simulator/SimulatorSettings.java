@@ -0,0 +1,38 @@
+package com.openclassrooms.tourguide.simulator;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of a simulated vendor library.
+ *
+ * @param latency the latency of each call
+ * @param permitsPerSecond the calls allowed per second, callers waiting beyond it; 0 for no limit
+ * @param errorRate the share of the calls failing with a {@link SimulatedFailureException}
+ */
+public record SimulatorSettings(LatencyProfile latency, double permitsPerSecond, double errorRate) {
+	/**
+	 * GpsUtil: 30 to 100 ms per call, at most 1000 calls per second.
+	 */
+	public static final SimulatorSettings GPS_UTIL =
+			new SimulatorSettings(LatencyProfile.uniform(Duration.ofMillis(30), Duration.ofMillis(100)), 1000, 0);
+	/**
+	 * RewardCentral: 1 to 1000 ms per call.
+	 */
+	public static final SimulatorSettings REWARD_CENTRAL =
+			new SimulatorSettings(LatencyProfile.uniform(Duration.ofMillis(1), Duration.ofMillis(1000)), 0, 0);
+	/**
+	 * TripPricer: 1 to 50 ms per call.
+	 */
+	public static final SimulatorSettings TRIP_PRICER =
+			new SimulatorSettings(LatencyProfile.uniform(Duration.ofMillis(1), Duration.ofMillis(50)), 0, 0);
+	/**
+	 * Answers immediately, without limit or failure.
+	 */
+	public static final SimulatorSettings INSTANT = new SimulatorSettings(LatencyProfile.none(), 0, 0);
+
+	public SimulatorSettings {
+		if (permitsPerSecond < 0 || errorRate < 0 || errorRate > 1) {
+			throw new IllegalArgumentException("The rate limit must not be negative and the error rate between 0 and 1");
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.openclassrooms.tourguide.tracker;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the adaptive tracking interval of the users.
+ *
+ * @param fastInterval the interval of the users on the move or near an attraction
+ * @param maxInterval the longest interval a stationary user backs off to
+ * @param stationaryRadiusMiles the radius, in statute miles, the last locations of a stationary user fit in
+ * @param stationaryLocations the number of last locations considered to decide whether a user is stationary
+ */
+public record CadenceSettings(Duration fastInterval, Duration maxInterval, double stationaryRadiusMiles,
+		int stationaryLocations) {
+
+	public CadenceSettings {
+		if (fastInterval.isNegative() || fastInterval.isZero() || maxInterval.compareTo(fastInterval) < 0) {
+			throw new IllegalArgumentException("The tracking intervals must be positive, the fast one the shortest");
+		}
+		if (stationaryLocations < 2) {
+			throw new IllegalArgumentException("At least two locations are needed to tell whether a user moved");
+		}
+	}
+
+	/**
+	 * Default bounds for a tracking interval: twice as often on the move, up to 8 times less often when the
+	 * last 3 locations are within a tenth of a mile.
+	 *
+	 * @param interval the base tracking interval
+	 * @return the default bounds
+	 */
+	public static CadenceSettings defaults(Duration interval) {
+		return new CadenceSettings(interval.dividedBy(2), interval.multipliedBy(8), 0.1, 3);
+	}
+
+	/**
+	 * Bounds tracking every user at the base interval, whatever their movements.
+	 *
+	 * @param interval the base tracking interval
+	 * @return bounds disabling the adaptive interval
+	 */
+	public static CadenceSettings fixed(Duration interval) {
+		return new CadenceSettings(interval, interval, 0, 2);
+	}
+}
@@ -0,0 +1,15 @@
+package com.openclassrooms.tourguide.tracker;
+
+/**
+ * What the {@link Tracker} does with the ticks falling while a cycle is still running.
+ */
+public enum OverrunPolicy {
+	/**
+	 * The ticks are dropped: the next cycle starts on the first tick after the overrunning one completed.
+	 */
+	SKIP,
+	/**
+	 * The ticks are merged into a single cycle, started as soon as the overrunning one completed.
+	 */
+	COALESCE
+}
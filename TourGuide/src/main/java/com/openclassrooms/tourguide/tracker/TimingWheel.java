@@ -0,0 +1,113 @@
+package com.openclassrooms.tourguide.tracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a ring of slots, each holding the items due when the cursor reaches it.
+ *
+ * The wheel is driven by {@link #advance()}, called once per tick. An item due further than one revolution
+ * away keeps a number of remaining rounds, decremented each time the cursor passes its slot, so scheduling
+ * and firing cost O(1) per item whatever the delay.
+ *
+ * @param <T> the type of the scheduled items
+ */
+public class TimingWheel<T> {
+	private final List<List<Entry<T>>> slots;
+	private int cursor;
+	private int size;
+
+	/**
+	 * Creates a new wheel. The first call to {@link #advance()} fires slot 0.
+	 *
+	 * @param slotCount the number of ticks in a revolution
+	 */
+	public TimingWheel(int slotCount) {
+		if (slotCount < 1) {
+			throw new IllegalArgumentException("A timing wheel needs at least one slot");
+		}
+		this.slots = new ArrayList<>(slotCount);
+		for (int i = 0; i < slotCount; i++) {
+			slots.add(new ArrayList<>());
+		}
+		this.cursor = slotCount - 1;
+	}
+
+	/**
+	 * Schedules an item after the given number of ticks.
+	 *
+	 * @param item the item
+	 * @param ticks the number of ticks before the item fires, at least 1
+	 */
+	public synchronized void schedule(T item, long ticks) {
+		long delay = Math.max(1, ticks);
+		int slot = (int) ((cursor + delay) % slots.size());
+		slots.get(slot).add(new Entry<>(item, (delay - 1) / slots.size()));
+		size++;
+	}
+
+	/**
+	 * Schedules an item on the next passage of the cursor on the given slot.
+	 *
+	 * @param item the item
+	 * @param phase the slot, taken modulo the number of slots
+	 */
+	public synchronized void scheduleAtPhase(T item, int phase) {
+		int slot = Math.floorMod(phase, slots.size());
+		schedule(item, Math.floorMod(slot - cursor - 1, slots.size()) + 1);
+	}
+
+	/**
+	 * Moves the cursor to the next slot and removes the items due on it.
+	 *
+	 * @return the items due, in scheduling order
+	 */
+	public synchronized List<T> advance() {
+		cursor = (cursor + 1) % slots.size();
+		List<Entry<T>> slot = slots.get(cursor);
+		List<T> due = new ArrayList<>();
+		List<Entry<T>> remaining = new ArrayList<>();
+		for (Entry<T> entry : slot) {
+			if (entry.rounds == 0) {
+				due.add(entry.item);
+			} else {
+				entry.rounds--;
+				remaining.add(entry);
+			}
+		}
+		slots.set(cursor, remaining);
+		size -= due.size();
+		return due;
+	}
+
+	/**
+	 * @return the slot fired by the last call to {@link #advance()}
+	 */
+	public synchronized int getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * @return the number of ticks in a revolution
+	 */
+	public int getSlotCount() {
+		return slots.size();
+	}
+
+	/**
+	 * @return the number of scheduled items
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	private static final class Entry<T> {
+		private final T item;
+		private long rounds;
+
+		private Entry(T item, long rounds) {
+			this.item = item;
+			this.rounds = rounds;
+		}
+	}
+}
@@ -1,61 +1,334 @@
 package com.openclassrooms.tourguide.tracker;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import gpsUtil.location.VisitedLocation;
+
 import com.openclassrooms.tourguide.service.TourGuideService;
 import com.openclassrooms.tourguide.user.User;
 
-public class Tracker extends Thread {
-	private Logger logger = LoggerFactory.getLogger(Tracker.class);
-	private static final long trackingPollingInterval = TimeUnit.MINUTES.toSeconds(5);
-	private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+/**
+ * Tracks every user periodically through the tracking pipeline of the {@link TourGuideService}.
+ *
+ * Rather than tracking every user at once and then idling, the users are spread over the slots of a
+ * {@link TimingWheel} turning once per tracking interval: each user gets a phase derived from its id, and
+ * each tick of the wheel only tracks the users of one slot, so the GPS calls are spread evenly over the
+ * interval. Ticks fall at a fixed rate, so the age of the locations does not drift with the tracking time.
+ * A tick falling while the users of the previous one are still tracked is handled according to the
+ * {@link OverrunPolicy}. Users registered with {@link #track(User)} are tracked on the next tick.
+ *
+ * Once tracked, each user is scheduled again after an interval adapted to their movements by the
+ * {@link TrackingCadence}: users on the move or near an attraction come back sooner, stationary users
+ * back off.
+ *
+ * The statistics of each revolution of the wheel are logged and kept in {@link #getLastCycle()}.
+ */
+public class Tracker {
+	private static final Logger logger = LoggerFactory.getLogger(Tracker.class);
+
 	private final TourGuideService tourGuideService;
-	private boolean stop = false;
+	private final TrackerSettings settings;
+	private final long tickNanos;
+	private final TrackingCadence cadence;
+	private final TimingWheel<ScheduledUser> wheel;
+	private final ScheduledExecutorService scheduler;
+	private final ExecutorService batchRunner;
+	private final Object lock = new Object();
+	private final AtomicLong ticks = new AtomicLong();
+	private final AtomicLong completedCycles = new AtomicLong();
+	private final AtomicLong skippedTicks = new AtomicLong();
+	private final AtomicLong coalescedTicks = new AtomicLong();
+	private final AtomicLong trackedUsers = new AtomicLong();
+	private final AtomicLong failedUsers = new AtomicLong();
+	private final AtomicLong cycleMaxLag = new AtomicLong();
+	private final long origin;
+	private boolean running;
+	private Batch pending;
+	private long cycleStart;
+	private long cycleTrackedUsers;
+	private long cycleFailedUsers;
+	private long cycleOverrunTicks;
+	private volatile TrackerCycle lastCycle;
+	private volatile boolean stop = false;
 
+	/**
+	 * Starts tracking every user every 5 minutes.
+	 *
+	 * @param tourGuideService the service whose users are tracked
+	 */
 	public Tracker(TourGuideService tourGuideService) {
+		this(tourGuideService, TrackerSettings.DEFAULT);
+	}
+
+	/**
+	 * Starts tracking every user on the given schedule. The first tick falls immediately.
+	 *
+	 * @param tourGuideService the service whose users are tracked
+	 * @param settings the schedule of the users
+	 */
+	public Tracker(TourGuideService tourGuideService, TrackerSettings settings) {
 		this.tourGuideService = tourGuideService;
+		this.settings = settings;
+		this.tickNanos = settings.tick().toNanos();
+		this.cadence = new TrackingCadence(settings, tourGuideService.getRewardsService());
+		this.wheel = new TimingWheel<>(settings.slots());
+		tourGuideService.getUserRepository().findAll()
+				.forEach(user -> wheel.scheduleAtPhase(new ScheduledUser(user), phaseOf(user)));
+		logger.debug("Tracking {} users over {} slots of {} ms", wheel.size(), settings.slots(), settings.tick().toMillis());
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("tracker-scheduler"));
+		this.batchRunner = Executors.newSingleThreadExecutor(daemon("tracker-batch"));
+		this.origin = System.nanoTime();
+		this.cycleStart = origin;
+		scheduler.scheduleAtFixedRate(this::tick, 0, tickNanos, TimeUnit.NANOSECONDS);
+	}
 
-		executorService.submit(this);
+	/**
+	 * Registers a new user, tracked on the next tick and then at an interval adapted to their movements.
+	 *
+	 * @param user the user to track
+	 */
+	public void track(User user) {
+		wheel.schedule(new ScheduledUser(user), 1);
 	}
 
 	/**
-	 * Assures to shut down the Tracker thread
+	 * Registers a user tracked at its phase of the interval, like the users stored when the tracker started,
+	 * so that users registered in bulk do not all fall on the same tick.
+	 *
+	 * @param user the user to track
+	 */
+	public void register(User user) {
+		wheel.scheduleAtPhase(new ScheduledUser(user), phaseOf(user));
+	}
+
+	/**
+	 * Assures to shut down the Tracker threads. Users being tracked are abandoned.
 	 */
 	public void stopTracking() {
 		stop = true;
-		executorService.shutdownNow();
+		scheduler.shutdownNow();
+		batchRunner.shutdownNow();
 	}
 
-	@Override
-	public void run() {
-		StopWatch stopWatch = new StopWatch();
-		while (true) {
-			if (Thread.currentThread().isInterrupted() || stop) {
-				logger.debug("Tracker stopping");
-				break;
+	public TrackerSettings getSettings() {
+		return settings;
+	}
+
+	/**
+	 * @return the number of users scheduled on the wheel
+	 */
+	public int getScheduledUsers() {
+		return wheel.size();
+	}
+
+	/**
+	 * @return the statistics of the last completed cycle, or null if no cycle completed yet
+	 */
+	public TrackerCycle getLastCycle() {
+		return lastCycle;
+	}
+
+	/**
+	 * @return the number of completed cycles
+	 */
+	public long getCompletedCycles() {
+		return completedCycles.get();
+	}
+
+	/**
+	 * @return the number of ticks whose users were not tracked because the previous ones were still tracked
+	 */
+	public long getSkippedTicks() {
+		return skippedTicks.get();
+	}
+
+	/**
+	 * @return the number of ticks whose users were merged with those of a previous tick still waiting
+	 */
+	public long getCoalescedTicks() {
+		return coalescedTicks.get();
+	}
+
+	/**
+	 * @return the number of users whose tracking completed
+	 */
+	public long getTrackedUsers() {
+		return trackedUsers.get();
+	}
+
+	/**
+	 * @return the number of users whose tracking failed
+	 */
+	public long getFailedUsers() {
+		return failedUsers.get();
+	}
+
+	private int phaseOf(User user) {
+		return Math.floorMod(user.getUserId().hashCode(), settings.slots());
+	}
+
+	private void tick() {
+		if (stop) {
+			return;
+		}
+		long tick = ticks.getAndIncrement();
+		long nominalStart = origin + tick * tickNanos;
+		List<ScheduledUser> due = wheel.advance();
+		if (!due.isEmpty()) {
+			dispatch(new Batch(due, tick, nominalStart));
+		}
+		if (wheel.getCursor() == settings.slots() - 1) {
+			completeCycle();
+		}
+	}
+
+	private void dispatch(Batch batch) {
+		synchronized (lock) {
+			if (!running) {
+				running = true;
+				start(batch);
+			} else if (settings.overrunPolicy() == OverrunPolicy.SKIP) {
+				skippedTicks.incrementAndGet();
+				logger.warn("Tracker overran a {} ms tick, {} users skipped until their next interval",
+						settings.tick().toMillis(), batch.users.size());
+				batch.users.forEach(scheduledUser -> reschedule(scheduledUser, batch.tick));
+			} else if (pending != null) {
+				pending.users.addAll(batch.users);
+				coalescedTicks.incrementAndGet();
+			} else {
+				pending = batch;
+				logger.warn("Tracker overran a {} ms tick, next users tracked as soon as possible",
+						settings.tick().toMillis());
 			}
+		}
+	}
+
+	private void start(Batch batch) {
+		try {
+			batchRunner.execute(() -> run(batch));
+		} catch (RejectedExecutionException e) {
+			running = false;
+		}
+	}
 
-			List<User> users = tourGuideService.getAllUsers();
-			logger.debug("Begin Tracker. Tracking " + users.size() + " users.");
-			stopWatch.start();
-			users.forEach(u -> tourGuideService.trackUserLocation(u));
-			stopWatch.stop();
-			logger.debug("Tracker Time Elapsed: " + TimeUnit.MILLISECONDS.toSeconds(stopWatch.getTime()) + " seconds.");
-			stopWatch.reset();
-			try {
-				logger.debug("Tracker sleeping");
-				TimeUnit.SECONDS.sleep(trackingPollingInterval);
-			} catch (InterruptedException e) {
+	private void run(Batch batch) {
+		long start = System.nanoTime();
+		cycleMaxLag.accumulateAndGet(start - batch.nominalStart, Math::max);
+		List<CompletableFuture<VisitedLocation>> results = new ArrayList<>(batch.users.size());
+		for (ScheduledUser scheduledUser : batch.users) {
+			if (stop) {
 				break;
 			}
+			results.add(tourGuideService.trackUserLocationInBackground(scheduledUser.user));
 		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+				.whenComplete((ignored, e) -> completeBatch(batch, results));
+	}
 
+	private void completeBatch(Batch batch, List<CompletableFuture<VisitedLocation>> results) {
+		long failures = 0;
+		for (int i = 0; i < results.size(); i++) {
+			ScheduledUser scheduledUser = batch.users.get(i);
+			if (results.get(i).isCompletedExceptionally()) {
+				failures++;
+			} else {
+				try {
+					scheduledUser.level = cadence.nextLevel(scheduledUser.user, scheduledUser.level);
+				} catch (RuntimeException e) {
+					logger.warn("Could not adapt the tracking interval of {}", scheduledUser.user.getUserName(), e);
+				}
+			}
+			reschedule(scheduledUser, batch.tick);
+		}
+		trackedUsers.addAndGet(results.size() - failures);
+		failedUsers.addAndGet(failures);
+		synchronized (lock) {
+			Batch next = pending;
+			pending = null;
+			if (next != null && !stop) {
+				start(next);
+			} else {
+				running = false;
+			}
+		}
+	}
+
+	/**
+	 * Schedules a user again after its interval, counted from the tick which fired it so the phase of the user
+	 * does not drift with the tracking time.
+	 */
+	private void reschedule(ScheduledUser scheduledUser, long firedTick) {
+		if (stop) {
+			return;
+		}
+		long interval = Math.max(1, cadence.intervalOf(scheduledUser.level).toNanos() / tickNanos);
+		long elapsed = Math.max(0, ticks.get() - 1 - firedTick);
+		wheel.schedule(scheduledUser, interval - elapsed);
+	}
+
+	/**
+	 * Closes the statistics of a revolution of the wheel. Users are counted in the cycle during which
+	 * their tracking completed.
+	 */
+	private void completeCycle() {
+		long now = System.nanoTime();
+		long tracked = trackedUsers.get();
+		long failed = failedUsers.get();
+		long overrunTicks = skippedTicks.get() + coalescedTicks.get();
+		Duration duration = Duration.ofNanos(now - cycleStart);
+		TrackerCycle cycle = new TrackerCycle(completedCycles.get() + 1, (int) (tracked - cycleTrackedUsers),
+				failed - cycleFailedUsers, duration, Duration.ofNanos(Math.max(0, cycleMaxLag.getAndSet(0))),
+				overrunTicks > cycleOverrunTicks);
+		cycleStart = now;
+		cycleTrackedUsers = tracked;
+		cycleFailedUsers = failed;
+		cycleOverrunTicks = overrunTicks;
+		lastCycle = cycle;
+		completedCycles.incrementAndGet();
+		logger.debug("Tracker cycle {}: {} users in {} ms ({} failed), up to {} ms late, {} users/s",
+				cycle.number(), cycle.users(), duration.toMillis(), cycle.failures(), cycle.lag().toMillis(),
+				Math.round(cycle.usersPerSecond()));
+	}
+
+	private static ThreadFactory daemon(String name) {
+		return runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private static final class ScheduledUser {
+		private final User user;
+		private volatile int level;
+
+		private ScheduledUser(User user) {
+			this.user = user;
+		}
+	}
+
+	private static final class Batch {
+		private final List<ScheduledUser> users;
+		private final long tick;
+		private final long nominalStart;
+
+		private Batch(List<ScheduledUser> users, long tick, long nominalStart) {
+			this.users = users;
+			this.tick = tick;
+			this.nominalStart = nominalStart;
+		}
 	}
 }
@@ -0,0 +1,23 @@
+package com.openclassrooms.tourguide.tracker;
+
+import java.time.Duration;
+
+/**
+ * Statistics of a {@link Tracker} cycle, one revolution of its timing wheel.
+ *
+ * @param number the number of the cycle, starting at 1
+ * @param users the number of users tracked during the cycle
+ * @param failures the number of users whose tracking failed during the cycle
+ * @param duration the time taken by the cycle
+ * @param lag the longest delay between a tick and the start of the tracking of its users
+ * @param overrun whether users were still being tracked when a tick fell during the cycle
+ */
+public record TrackerCycle(long number, int users, long failures, Duration duration, Duration lag, boolean overrun) {
+
+	/**
+	 * @return the number of users tracked per second
+	 */
+	public double usersPerSecond() {
+		return duration.isZero() ? users : users * 1_000_000_000.0 / duration.toNanos();
+	}
+}
@@ -0,0 +1,51 @@
+package com.openclassrooms.tourguide.tracker;
+
+import java.time.Duration;
+
+/**
+ * Schedule of the {@link Tracker}.
+ *
+ * @param interval the base period between two locations of the same user
+ * @param overrunPolicy what to do with the ticks falling while the users of the previous one are still tracked
+ * @param slots the number of phases the users are spread over within the interval
+ * @param cadence the bounds of the interval of each user, adapted to their movements
+ */
+public record TrackerSettings(Duration interval, OverrunPolicy overrunPolicy, int slots, CadenceSettings cadence) {
+
+	/**
+	 * Tracks every user every 5 minutes, a three hundredth of them each second, starting late batches as
+	 * soon as possible. Users on the move are tracked twice as often, stationary users back off.
+	 */
+	public static final TrackerSettings DEFAULT = new TrackerSettings(Duration.ofMinutes(5), OverrunPolicy.COALESCE,
+			300);
+
+	public TrackerSettings {
+		if (interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("The tracking interval must be positive");
+		}
+		if (slots < 1 || interval.toNanos() / slots == 0) {
+			throw new IllegalArgumentException("The tracking interval must be split in a positive number of slots");
+		}
+		if (cadence.fastInterval().compareTo(interval) > 0 || cadence.maxInterval().compareTo(interval) < 0) {
+			throw new IllegalArgumentException("The tracking interval must be between the fast and the max intervals");
+		}
+	}
+
+	/**
+	 * Creates settings with the default adaptive interval bounds.
+	 *
+	 * @param interval the period between two locations of the same user
+	 * @param overrunPolicy what to do with the ticks falling while the users of the previous one are still tracked
+	 * @param slots the number of phases the users are spread over within the interval
+	 */
+	public TrackerSettings(Duration interval, OverrunPolicy overrunPolicy, int slots) {
+		this(interval, overrunPolicy, slots, CadenceSettings.defaults(interval));
+	}
+
+	/**
+	 * @return the period between two ticks of the tracker
+	 */
+	public Duration tick() {
+		return interval.dividedBy(slots);
+	}
+}
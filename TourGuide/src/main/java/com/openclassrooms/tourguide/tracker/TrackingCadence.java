@@ -0,0 +1,91 @@
+package com.openclassrooms.tourguide.tracker;
+
+import java.time.Duration;
+import java.util.List;
+
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.geo.GreatCircle;
+import com.openclassrooms.tourguide.geo.Radius;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.VisitedLocationHistory;
+
+/**
+ * Adapts the tracking interval of each user to their movements, to spend the GPS calls where the locations
+ * change.
+ *
+ * The interval of a user is described by a level:
+ * <ul>
+ * <li>{@link #FAST}: the user is on the move, or near an attraction they have not been rewarded for yet, and
+ * is tracked at the fast interval;</li>
+ * <li>0: too few locations are known to tell, the user is tracked at the base interval;</li>
+ * <li>n &gt; 0: the last locations of the user fit in the stationary radius, the interval is doubled at each
+ * new stationary location, up to the max interval.</li>
+ * </ul>
+ */
+public class TrackingCadence {
+	public static final int FAST = -1;
+
+	private final Duration interval;
+	private final CadenceSettings settings;
+	private final RewardsService rewardsService;
+	private final Radius stationaryRadius;
+	private final int maxLevel;
+
+	/**
+	 * @param settings the schedule of the tracker
+	 * @param rewardsService the service telling whether a location is near an attraction not yet rewarded
+	 */
+	public TrackingCadence(TrackerSettings settings, RewardsService rewardsService) {
+		this.interval = settings.interval();
+		this.settings = settings.cadence();
+		this.rewardsService = rewardsService;
+		this.stationaryRadius = Radius.ofMiles(this.settings.stationaryRadiusMiles());
+		int level = 0;
+		while (interval.multipliedBy(1L << level).compareTo(this.settings.maxInterval()) < 0) {
+			level++;
+		}
+		this.maxLevel = level;
+	}
+
+	/**
+	 * Computes the level of a user after a new location.
+	 *
+	 * @param user the user, whose last location has just been recorded
+	 * @param level the level of the user before the new location
+	 * @return the new level of the user
+	 */
+	public int nextLevel(User user, int level) {
+		VisitedLocation last = user.getLastVisitedLocation();
+		if (last == null) {
+			return 0;
+		}
+		if (rewardsService.isNearUnrewardedAttraction(user, last.location)) {
+			return FAST;
+		}
+		VisitedLocationHistory history = user.getVisitedLocationHistory();
+		List<VisitedLocation> recent = history.getSince(history.size() - settings.stationaryLocations());
+		if (recent.size() < settings.stationaryLocations()) {
+			return 0;
+		}
+		for (VisitedLocation visitedLocation : recent) {
+			if (!GreatCircle.isWithin(visitedLocation.location, last.location, stationaryRadius)) {
+				return FAST;
+			}
+		}
+		return Math.min(Math.max(level, 0) + 1, maxLevel);
+	}
+
+	/**
+	 * @param level a level returned by {@link #nextLevel(User, int)}
+	 * @return the tracking interval of the level
+	 */
+	public Duration intervalOf(int level) {
+		if (level < 0) {
+			return settings.fastInterval();
+		}
+		Duration backedOff = interval.multipliedBy(1L << Math.min(level, maxLevel));
+		return backedOff.compareTo(settings.maxInterval()) > 0 ? settings.maxInterval() : backedOff;
+	}
+}
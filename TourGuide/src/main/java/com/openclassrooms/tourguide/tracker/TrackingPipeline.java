@@ -0,0 +1,239 @@
+package com.openclassrooms.tourguide.tracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gpsUtil.location.VisitedLocation;
+
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.gateway.Lane;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.user.User;
+
+/**
+ * Tracks users through three stages, each with its own concurrency and backpressure, so the GPS calls
+ * of some users overlap the reward evaluation of others:
+ * <ol>
+ * <li>fetch: asks the {@link GpsGateway} for the location of the user in the background lane, on the fetch
+ * executor;</li>
+ * <li>reward: records the location in the history of the user and evaluates the rewards, on the reward
+ * executor. Its bounded queue sits between the two stages: when it is full, fetch workers run the
+ * evaluation themselves, which slows the fetches down to the pace of the evaluations;</li>
+ * <li>sink: a single thread draining a bounded queue in batches, which publishes each tracked location to
+ * the listeners and completes the future returned to the caller. Reward workers wait when it is full.</li>
+ * </ol>
+ * The executors are owned by the caller; {@link #close()} only stops the sink.
+ */
+public class TrackingPipeline implements AutoCloseable {
+	public static final int DEFAULT_SINK_QUEUE_CAPACITY = 10_000;
+	private static final int SINK_BATCH_SIZE = 256;
+	private static final long OFFER_TIMEOUT_MILLIS = 100;
+	private static final Logger logger = LoggerFactory.getLogger(TrackingPipeline.class);
+
+	private final GpsGateway gpsGateway;
+	private final RewardsService rewardsService;
+	private final BoundedExecutor fetchExecutor;
+	private final BoundedExecutor rewardExecutor;
+	private final BlockingQueue<TrackedLocation> sinkQueue;
+	private final List<BiConsumer<User, VisitedLocation>> listeners = new CopyOnWriteArrayList<>();
+	private final AtomicLong trackedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final Thread sink;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a new pipeline with the default sink queue capacity, evaluating the rewards on the executor of
+	 * the rewards service.
+	 *
+	 * @param gpsGateway the gateway to the GPS utility
+	 * @param rewardsService the service for calculating user rewards
+	 * @param fetchExecutor the executor running the GPS calls
+	 */
+	public TrackingPipeline(GpsGateway gpsGateway, RewardsService rewardsService, BoundedExecutor fetchExecutor) {
+		this(gpsGateway, rewardsService, fetchExecutor, rewardsService.getRewardsExecutor(),
+				DEFAULT_SINK_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a new pipeline.
+	 *
+	 * @param gpsGateway the gateway to the GPS utility
+	 * @param rewardsService the service for calculating user rewards
+	 * @param fetchExecutor the executor running the GPS calls
+	 * @param rewardExecutor the executor running the reward evaluations
+	 * @param sinkQueueCapacity the maximum number of evaluated locations waiting for the sink
+	 */
+	public TrackingPipeline(GpsGateway gpsGateway, RewardsService rewardsService, BoundedExecutor fetchExecutor,
+			BoundedExecutor rewardExecutor, int sinkQueueCapacity) {
+		this.gpsGateway = gpsGateway;
+		this.rewardsService = rewardsService;
+		this.fetchExecutor = fetchExecutor;
+		this.rewardExecutor = rewardExecutor;
+		this.sinkQueue = new ArrayBlockingQueue<>(sinkQueueCapacity);
+		this.sink = new Thread(this::drainSink, "tracking-sink");
+		this.sink.setDaemon(true);
+		this.sink.start();
+	}
+
+	/**
+	 * Tracks the location of a user.
+	 *
+	 * @param user the user to track
+	 * @return the new location of the user, completed once it went through every stage
+	 */
+	public CompletableFuture<VisitedLocation> track(User user) {
+		CompletableFuture<VisitedLocation> result = new CompletableFuture<>();
+		try {
+			fetchExecutor.execute(() -> fetch(user, result));
+		} catch (RuntimeException e) {
+			fail(user, result, e);
+		}
+		return result;
+	}
+
+	/**
+	 * Tracks the location of every user. Submitting goes at the pace of the fetch stage.
+	 *
+	 * @param users the users to track
+	 * @return a future completed once every user went through every stage
+	 */
+	public CompletableFuture<Void> trackAll(Collection<User> users) {
+		List<CompletableFuture<VisitedLocation>> results = new ArrayList<>(users.size());
+		for (User user : users) {
+			results.add(track(user));
+		}
+		return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]));
+	}
+
+	/**
+	 * Registers a listener called by the sink with every tracked location. Listeners must not block.
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(BiConsumer<User, VisitedLocation> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @return the number of users which went through every stage
+	 */
+	public long getTrackedCount() {
+		return trackedCount.get();
+	}
+
+	/**
+	 * @return the number of users whose tracking failed
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	/**
+	 * @return the number of evaluated locations waiting for the sink
+	 */
+	public int getSinkQueueDepth() {
+		return sinkQueue.size();
+	}
+
+	public BoundedExecutor getFetchExecutor() {
+		return fetchExecutor;
+	}
+
+	public BoundedExecutor getRewardExecutor() {
+		return rewardExecutor;
+	}
+
+	/**
+	 * Stops the sink. Locations still waiting for it are failed with a {@link CancellationException}.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		sink.interrupt();
+		List<TrackedLocation> remaining = new ArrayList<>();
+		sinkQueue.drainTo(remaining);
+		remaining.forEach(t -> t.result().completeExceptionally(new CancellationException("Tracking pipeline closed")));
+	}
+
+	private void fetch(User user, CompletableFuture<VisitedLocation> result) {
+		try {
+			VisitedLocation visitedLocation = gpsGateway.getUserLocation(user.getUserId(), Lane.BACKGROUND);
+			rewardExecutor.execute(() -> evaluate(user, visitedLocation, result));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail(user, result, e);
+		} catch (RuntimeException e) {
+			fail(user, result, e);
+		}
+	}
+
+	private void evaluate(User user, VisitedLocation visitedLocation, CompletableFuture<VisitedLocation> result) {
+		try {
+			user.addToVisitedLocations(visitedLocation);
+			rewardsService.calculateRewards(user);
+			TrackedLocation tracked = new TrackedLocation(user, visitedLocation, result);
+			while (!sinkQueue.offer(tracked, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (closed) {
+					throw new CancellationException("Tracking pipeline closed");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail(user, result, e);
+		} catch (RuntimeException e) {
+			fail(user, result, e);
+		}
+	}
+
+	private void drainSink() {
+		List<TrackedLocation> batch = new ArrayList<>(SINK_BATCH_SIZE);
+		while (!closed) {
+			try {
+				batch.add(sinkQueue.take());
+			} catch (InterruptedException e) {
+				break;
+			}
+			sinkQueue.drainTo(batch, SINK_BATCH_SIZE - 1);
+			for (TrackedLocation tracked : batch) {
+				publish(tracked);
+			}
+			batch.clear();
+		}
+		logger.debug("Tracking sink stopped");
+	}
+
+	private void publish(TrackedLocation tracked) {
+		for (BiConsumer<User, VisitedLocation> listener : listeners) {
+			try {
+				listener.accept(tracked.user(), tracked.visitedLocation());
+			} catch (RuntimeException e) {
+				logger.warn("Tracking listener failed for {}", tracked.user().getUserName(), e);
+			}
+		}
+		trackedCount.incrementAndGet();
+		tracked.result().complete(tracked.visitedLocation());
+	}
+
+	private void fail(User user, CompletableFuture<VisitedLocation> result, Throwable e) {
+		failedCount.incrementAndGet();
+		logger.warn("Tracking failed for {}", user.getUserName(), e);
+		result.completeExceptionally(e);
+	}
+
+	private record TrackedLocation(User user, VisitedLocation visitedLocation,
+			CompletableFuture<VisitedLocation> result) {
+	}
+}
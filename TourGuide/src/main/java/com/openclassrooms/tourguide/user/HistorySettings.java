@@ -0,0 +1,26 @@
+package com.openclassrooms.tourguide.user;
+
+/**
+ * Bounds of the {@link VisitedLocationHistory} of each user.
+ *
+ * @param window the number of most recent locations kept in memory
+ * @param archiveSize the number of older locations kept in the compact archive, the oldest ones being dropped
+ * beyond it
+ */
+public record HistorySettings(int window, int archiveSize) {
+
+	/**
+	 * Keeps one day of locations at the default tracking interval in memory, and one more week archived.
+	 */
+	public static final HistorySettings DEFAULT = new HistorySettings(VisitedLocationHistory.DEFAULT_WINDOW,
+			VisitedLocationHistory.DEFAULT_ARCHIVE_SIZE);
+
+	public HistorySettings {
+		if (window < 1) {
+			throw new IllegalArgumentException("The history window must hold at least one location");
+		}
+		if (archiveSize < 0) {
+			throw new IllegalArgumentException("The history archive size must not be negative");
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.openclassrooms.tourguide.user;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@link UserRepository} keeping the users in memory, indexed by name and by identifier.
+ */
+@Repository
+public class InMemoryUserRepository implements UserRepository {
+	private final ConcurrentMap<String, User> usersByName = new ConcurrentHashMap<>();
+	private final ConcurrentMap<UUID, User> usersById = new ConcurrentHashMap<>();
+
+	@Override
+	public boolean addIfAbsent(User user) {
+		if (usersByName.putIfAbsent(user.getUserName(), user) != null) {
+			return false;
+		}
+		usersById.put(user.getUserId(), user);
+		return true;
+	}
+
+	@Override
+	public Optional<User> findByUserName(String userName) {
+		return Optional.ofNullable(usersByName.get(userName));
+	}
+
+	@Override
+	public Optional<User> findByUserId(UUID userId) {
+		return Optional.ofNullable(usersById.get(userId));
+	}
+
+	@Override
+	public Collection<User> findAll() {
+		return Collections.unmodifiableCollection(usersByName.values());
+	}
+
+	@Override
+	public void forEachBatch(int batchSize, Consumer<List<User>> consumer) {
+		Spliterator<User> spliterator = usersByName.values().spliterator();
+		List<User> batch = new ArrayList<>(batchSize);
+		while (spliterator.tryAdvance(batch::add)) {
+			if (batch.size() == batchSize) {
+				consumer.accept(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		if (!batch.isEmpty()) {
+			consumer.accept(batch);
+		}
+	}
+
+	@Override
+	public int count() {
+		return usersByName.size();
+	}
+}
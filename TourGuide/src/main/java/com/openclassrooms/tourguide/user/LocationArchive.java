@@ -0,0 +1,106 @@
+package com.openclassrooms.tourguide.user;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+
+/**
+ * Compact, bounded store of visited locations that left the in-memory window of a
+ * {@link VisitedLocationHistory}.
+ *
+ * Locations are kept as primitive columns in fixed-size chunks: an archived location costs 24 bytes instead
+ * of three objects, and appending never copies the entries already stored. Once the capacity is reached, each
+ * new location drops the oldest one, and chunks are released as soon as they are empty. This class is not
+ * thread-safe, {@link VisitedLocationHistory} guards it.
+ */
+class LocationArchive {
+	private static final int CHUNK_SIZE = 256;
+
+	private final int capacity;
+	private final List<double[]> latitudes = new ArrayList<>();
+	private final List<double[]> longitudes = new ArrayList<>();
+	private final List<long[]> times = new ArrayList<>();
+	// position of the oldest location in the first chunk
+	private int start;
+	private int size;
+
+	/**
+	 * @param capacity the maximum number of locations kept, 0 to keep none
+	 */
+	LocationArchive(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Appends a location, dropping the oldest one if the archive is full.
+	 *
+	 * @param visitedLocation the location
+	 * @return the number of locations dropped, 0 or 1
+	 */
+	int append(VisitedLocation visitedLocation) {
+		if (capacity == 0) {
+			return 1;
+		}
+		int dropped = 0;
+		if (size == capacity) {
+			dropOldest();
+			dropped = 1;
+		}
+		int position = start + size;
+		int offset = position % CHUNK_SIZE;
+		if (offset == 0 && position / CHUNK_SIZE == latitudes.size()) {
+			latitudes.add(new double[CHUNK_SIZE]);
+			longitudes.add(new double[CHUNK_SIZE]);
+			times.add(new long[CHUNK_SIZE]);
+		}
+		int chunk = position / CHUNK_SIZE;
+		latitudes.get(chunk)[offset] = visitedLocation.location.latitude;
+		longitudes.get(chunk)[offset] = visitedLocation.location.longitude;
+		times.get(chunk)[offset] = visitedLocation.timeVisited.getTime();
+		size++;
+		return dropped;
+	}
+
+	private void dropOldest() {
+		start++;
+		size--;
+		if (start == CHUNK_SIZE) {
+			latitudes.remove(0);
+			longitudes.remove(0);
+			times.remove(0);
+			start = 0;
+		}
+	}
+
+	/**
+	 * Rebuilds an archived location.
+	 *
+	 * @param userId the owner of the location
+	 * @param index the position of the location, 0 being the oldest kept
+	 * @return the visited location
+	 */
+	VisitedLocation get(UUID userId, int index) {
+		int position = start + index;
+		int chunk = position / CHUNK_SIZE;
+		int offset = position % CHUNK_SIZE;
+		return new VisitedLocation(userId,
+				new Location(latitudes.get(chunk)[offset], longitudes.get(chunk)[offset]),
+				new Date(times.get(chunk)[offset]));
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		latitudes.clear();
+		longitudes.clear();
+		times.clear();
+		start = 0;
+		size = 0;
+	}
+}
@@ -0,0 +1,15 @@
+package com.openclassrooms.tourguide.user;
+
+/**
+ * Progress of the reward evaluation of a user.
+ *
+ * @param epoch the version of the reward rules the locations have been evaluated with
+ * @param evaluatedLocations the sequence number of the first visited location not evaluated yet
+ */
+public record RewardCheckpoint(long epoch, long evaluatedLocations) {
+
+	/**
+	 * Checkpoint of a user whose locations have never been evaluated.
+	 */
+	public static final RewardCheckpoint NONE = new RewardCheckpoint(-1, 0);
+}
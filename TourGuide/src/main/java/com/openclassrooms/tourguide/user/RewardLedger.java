@@ -0,0 +1,76 @@
+package com.openclassrooms.tourguide.user;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free set of the rewards earned by a user, at most one per attraction.
+ *
+ * Rewards are keyed by attraction identifier. GpsUtil generates new identifiers every time it lists the
+ * attractions, but the {@link com.openclassrooms.tourguide.attraction.AttractionCatalog} keeps the identifiers of
+ * unchanged attractions across reloads. Duplicate detection is a single put-if-absent. Readers get an immutable
+ * snapshot, published copy-on-write together with the cumulative points, so reading never copies nor locks.
+ * The points of a {@link UserReward} are immutable, so the cumulative points never go stale.
+ */
+public class RewardLedger {
+	private final ConcurrentMap<UUID, UserReward> rewardsByAttraction = new ConcurrentHashMap<>();
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(List.of(), 0));
+
+	/**
+	 * Adds a reward unless the user already has one for the same attraction.
+	 *
+	 * @param userReward the reward
+	 * @return true if the reward has been added
+	 */
+	public boolean add(UserReward userReward) {
+		if (rewardsByAttraction.putIfAbsent(userReward.attraction.attractionId, userReward) != null) {
+			return false;
+		}
+		snapshot.updateAndGet(current -> current.with(userReward));
+		return true;
+	}
+
+	/**
+	 * @param attractionId the identifier of the attraction
+	 * @return true if the user has a reward for this attraction
+	 */
+	public boolean contains(UUID attractionId) {
+		return rewardsByAttraction.containsKey(attractionId);
+	}
+
+	/**
+	 * @return an immutable snapshot of the rewards, in the order they have been added
+	 */
+	public List<UserReward> getRewards() {
+		return snapshot.get().rewards;
+	}
+
+	/**
+	 * @return the sum of the points of every reward
+	 */
+	public int getTotalPoints() {
+		return snapshot.get().totalPoints;
+	}
+
+	private static class Snapshot {
+		private final List<UserReward> rewards;
+		private final int totalPoints;
+
+		Snapshot(List<UserReward> rewards, int totalPoints) {
+			this.rewards = rewards;
+			this.totalPoints = totalPoints;
+		}
+
+		Snapshot with(UserReward userReward) {
+			List<UserReward> copy = new ArrayList<>(rewards.size() + 1);
+			copy.addAll(rewards);
+			copy.add(userReward);
+			return new Snapshot(Collections.unmodifiableList(copy), totalPoints + userReward.getRewardPoints());
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import gpsUtil.location.VisitedLocation;
 import tripPricer.Provider;
@@ -14,15 +15,34 @@ public class User {
 	private String phoneNumber;
 	private String emailAddress;
 	private Date latestLocationTimestamp;
-	private List<VisitedLocation> visitedLocations = new ArrayList<>();
-	private List<UserReward> userRewards = new ArrayList<>();
+	private final VisitedLocationHistory visitedLocations;
+	private final RewardLedger userRewards = new RewardLedger();
 	private UserPreferences userPreferences = new UserPreferences();
 	private List<Provider> tripDeals = new ArrayList<>();
+	private final AtomicReference<RewardCheckpoint> rewardCheckpoint = new AtomicReference<>(RewardCheckpoint.NONE);
 	public User(UUID userId, String userName, String phoneNumber, String emailAddress) {
+		this(userId, userName, phoneNumber, emailAddress, HistorySettings.DEFAULT);
+	}
+
+	/**
+	 * @param visitedLocationWindow the number of visited locations kept in memory, older ones being archived
+	 */
+	public User(UUID userId, String userName, String phoneNumber, String emailAddress, int visitedLocationWindow) {
+		this(userId, userName, phoneNumber, emailAddress,
+				new HistorySettings(visitedLocationWindow, HistorySettings.DEFAULT.archiveSize()));
+	}
+
+	/**
+	 * @param historySettings the number of visited locations kept in memory and archived, older ones being dropped
+	 */
+	public User(UUID userId, String userName, String phoneNumber, String emailAddress,
+			HistorySettings historySettings) {
 		this.userId = userId;
 		this.userName = userName;
 		this.phoneNumber = phoneNumber;
 		this.emailAddress = emailAddress;
+		this.visitedLocations = new VisitedLocationHistory(userId, historySettings.window(),
+				historySettings.archiveSize());
 	}
 	
 	public UUID getUserId() {
@@ -61,7 +81,18 @@ public class User {
 		visitedLocations.add(visitedLocation);
 	}
 	
+	/**
+	 * Returns the most recent visited locations only: the in-memory window of the history, at most
+	 * {@link HistorySettings#window()} locations. Older locations are archived, and eventually dropped, see
+	 * {@link #getVisitedLocationHistory()}.
+	 *
+	 * @return a snapshot of the visited locations kept in memory, oldest first
+	 */
 	public List<VisitedLocation> getVisitedLocations() {
+		return visitedLocations.getRecent();
+	}
+
+	public VisitedLocationHistory getVisitedLocationHistory() {
 		return visitedLocations;
 	}
 	
@@ -69,16 +100,51 @@ public class User {
 		visitedLocations.clear();
 	}
 	
-	public synchronized void addUserReward(UserReward userReward) {
-		 // create a copy of the list to avoid concurrent modification
-		List<UserReward> currentRewards = new ArrayList<>(userRewards);
-		if(currentRewards.stream().noneMatch(r -> r.attraction.attractionName.equals(userReward.attraction.attractionName))) {
-			userRewards.add(userReward);
-		}
+	/**
+	 * Adds a reward unless the user already has one for the same attraction.
+	 *
+	 * @param userReward the reward
+	 * @return true if the reward has been added
+	 */
+	public boolean addUserReward(UserReward userReward) {
+		return userRewards.add(userReward);
 	}
-	
+
+	/**
+	 * @param attractionId the identifier of the attraction
+	 * @return true if the user has already been rewarded for this attraction
+	 */
+	public boolean hasUserReward(UUID attractionId) {
+		return userRewards.contains(attractionId);
+	}
+
+	/**
+	 * @return an immutable snapshot of the user's rewards
+	 */
 	public List<UserReward> getUserRewards() {
-		return userRewards;
+		return userRewards.getRewards();
+	}
+
+	/**
+	 * @return the sum of the points of the user's rewards
+	 */
+	public int getCumulativeRewardPoints() {
+		return userRewards.getTotalPoints();
+	}
+	
+	public RewardCheckpoint getRewardCheckpoint() {
+		return rewardCheckpoint.get();
+	}
+
+	/**
+	 * Records the progress of the reward evaluation, unless another evaluation already went further.
+	 *
+	 * @param checkpoint the new progress
+	 */
+	public void advanceRewardCheckpoint(RewardCheckpoint checkpoint) {
+		rewardCheckpoint.accumulateAndGet(checkpoint, (current, next) -> next.epoch() > current.epoch()
+				|| (next.epoch() == current.epoch() && next.evaluatedLocations() > current.evaluatedLocations())
+				? next : current);
 	}
 	
 	public UserPreferences getUserPreferences() {
@@ -89,8 +155,11 @@ public class User {
 		this.userPreferences = userPreferences;
 	}
 
+	/**
+	 * @return the last visited location, or null if the user has none
+	 */
 	public VisitedLocation getLastVisitedLocation() {
-		return visitedLocations.get(visitedLocations.size() - 1);
+		return visitedLocations.getLast();
 	}
 	
 	public void setTripDeals(List<Provider> tripDeals) {
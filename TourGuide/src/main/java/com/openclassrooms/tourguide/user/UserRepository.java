@@ -0,0 +1,56 @@
+package com.openclassrooms.tourguide.user;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Storage of the users managed by the application.
+ *
+ * Implementations are thread-safe: users may be added while others are being iterated.
+ */
+public interface UserRepository {
+
+	/**
+	 * Adds a user unless a user with the same name is already stored. The check and the insertion are atomic.
+	 *
+	 * @param user the user to add
+	 * @return true if the user has been added
+	 */
+	boolean addIfAbsent(User user);
+
+	/**
+	 * @param userName the name of the user
+	 * @return the user with this name, if any
+	 */
+	Optional<User> findByUserName(String userName);
+
+	/**
+	 * @param userId the identifier of the user
+	 * @return the user with this identifier, if any
+	 */
+	Optional<User> findByUserId(UUID userId);
+
+	/**
+	 * Returns a live, unmodifiable view of the stored users. Iterating it never fails because of concurrent
+	 * additions, which may or may not be visible to the iteration.
+	 *
+	 * @return all the users
+	 */
+	Collection<User> findAll();
+
+	/**
+	 * Walks through all the users in batches, without copying the whole store.
+	 *
+	 * @param batchSize the maximum number of users per batch
+	 * @param consumer called with each batch
+	 */
+	void forEachBatch(int batchSize, Consumer<List<User>> consumer);
+
+	/**
+	 * @return the number of users
+	 */
+	int count();
+}
@@ -0,0 +1,153 @@
+package com.openclassrooms.tourguide.user;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import gpsUtil.location.VisitedLocation;
+
+/**
+ * Thread-safe, bounded history of the locations visited by a user.
+ *
+ * The most recent locations are kept in a ring buffer of fixed capacity; older ones are spilled to a compact
+ * {@link LocationArchive}, itself bounded: beyond its capacity the oldest locations are dropped, so the memory
+ * held per user does not grow with its uptime. Every appended location gets a sequence number, starting at 0
+ * and never reused, even after a {@link #clear()}, so readers can ask for the locations added since a given
+ * point.
+ * The last location is published through a volatile field and is read in constant time without locking.
+ */
+public class VisitedLocationHistory {
+	/**
+	 * Default capacity of the in-memory window: one day of locations at the default tracking interval.
+	 */
+	public static final int DEFAULT_WINDOW = 288;
+	/**
+	 * Default capacity of the archive: one more week of locations at the default tracking interval.
+	 */
+	public static final int DEFAULT_ARCHIVE_SIZE = 7 * DEFAULT_WINDOW;
+
+	private final UUID userId;
+	private final VisitedLocation[] window;
+	private final LocationArchive archive;
+	// sequence number of the next location
+	private volatile long size;
+	// sequence number of the oldest location retained
+	private long first;
+	private volatile VisitedLocation last;
+
+	/**
+	 * Creates an empty history archiving up to {@link #DEFAULT_ARCHIVE_SIZE} locations.
+	 *
+	 * @param userId the owner of the locations, used to rebuild archived locations
+	 * @param windowSize the number of locations kept in memory
+	 */
+	public VisitedLocationHistory(UUID userId, int windowSize) {
+		this(userId, windowSize, DEFAULT_ARCHIVE_SIZE);
+	}
+
+	/**
+	 * Creates an empty history.
+	 *
+	 * @param userId the owner of the locations, used to rebuild archived locations
+	 * @param windowSize the number of locations kept in memory
+	 * @param archiveSize the number of older locations kept in the archive, 0 to drop them
+	 */
+	public VisitedLocationHistory(UUID userId, int windowSize, int archiveSize) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+		}
+		if (archiveSize < 0) {
+			throw new IllegalArgumentException("archiveSize must not be negative: " + archiveSize);
+		}
+		this.userId = userId;
+		this.window = new VisitedLocation[windowSize];
+		this.archive = new LocationArchive(archiveSize);
+	}
+
+	/**
+	 * Appends a location.
+	 *
+	 * @param visitedLocation the location
+	 */
+	public synchronized void add(VisitedLocation visitedLocation) {
+		int slot = (int) (size % window.length);
+		if (window[slot] != null) {
+			first += archive.append(window[slot]);
+		}
+		window[slot] = visitedLocation;
+		last = visitedLocation;
+		size++;
+	}
+
+	/**
+	 * @return the last location, or null if the history is empty
+	 */
+	public VisitedLocation getLast() {
+		return last;
+	}
+
+	public boolean isEmpty() {
+		return last == null;
+	}
+
+	/**
+	 * @return the number of locations ever appended, which is also the sequence number of the next location
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of locations held in the compact archive
+	 */
+	public synchronized int getArchivedCount() {
+		return archive.size();
+	}
+
+	/**
+	 * @return a snapshot of the in-memory window, oldest first
+	 */
+	public synchronized List<VisitedLocation> getRecent() {
+		int count = (int) Math.min(size - first, window.length);
+		List<VisitedLocation> recent = new ArrayList<>(count);
+		for (long sequence = size - count; sequence < size; sequence++) {
+			recent.add(window[(int) (sequence % window.length)]);
+		}
+		return Collections.unmodifiableList(recent);
+	}
+
+	/**
+	 * Returns the locations appended since a sequence number, including archived ones. Locations dropped from
+	 * the archive are skipped.
+	 *
+	 * @param sequence the sequence number of the first location to return
+	 * @return the locations, oldest first
+	 */
+	public synchronized List<VisitedLocation> getSince(long sequence) {
+		long from = Math.max(sequence, first);
+		if (from >= size) {
+			return Collections.emptyList();
+		}
+		List<VisitedLocation> result = new ArrayList<>((int) (size - from));
+		long firstInWindow = size - Math.min(size - first, window.length);
+		for (long s = from; s < firstInWindow; s++) {
+			result.add(archive.get(userId, (int) (s - first)));
+		}
+		for (long s = Math.max(from, firstInWindow); s < size; s++) {
+			result.add(window[(int) (s % window.length)]);
+		}
+		return result;
+	}
+
+	/**
+	 * Removes every location, including archived ones. Sequence numbers keep growing from where they were.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(window, null);
+		archive.clear();
+		last = null;
+		first = size;
+	}
+}
@@ -0,0 +1,38 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import com.openclassrooms.tourguide.attraction.AttractionCatalog;
+
+public class TestAttractionCatalog {
+
+	@Test
+	public void attractionsAreLoadedOnce() {
+		GpsUtil gpsUtil = new GpsUtil();
+		AttractionCatalog attractionCatalog = new AttractionCatalog(gpsUtil);
+
+		assertSame(attractionCatalog.getAttractions(), attractionCatalog.getAttractions());
+		assertEquals(gpsUtil.getAttractions().size(), attractionCatalog.getAttractions().size());
+	}
+
+	@Test
+	public void refreshKeepsUnchangedAttractions() {
+		AttractionCatalog attractionCatalog = new AttractionCatalog(new GpsUtil());
+		List<Attraction> before = attractionCatalog.getAttractions();
+
+		assertFalse(attractionCatalog.refresh());
+
+		List<Attraction> after = attractionCatalog.getAttractions();
+		assertSame(before, after);
+		assertEquals(before.get(0).attractionId, after.get(0).attractionId);
+		attractionCatalog.close();
+	}
+}
@@ -0,0 +1,135 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+import rewardCentral.RewardCentral;
+import com.openclassrooms.tourguide.attraction.AttractionDistance;
+import com.openclassrooms.tourguide.attraction.AttractionIndex;
+import com.openclassrooms.tourguide.geo.Radius;
+import com.openclassrooms.tourguide.service.RewardsService;
+
+public class TestAttractionIndex {
+
+	private final RewardsService rewardsService = new RewardsService(new GpsUtil(), new RewardCentral());
+
+	@Test
+	public void withinDistanceMatchesFullScan() {
+		List<Attraction> attractions = randomAttractions(2000, new Random(42));
+		AttractionIndex index = new AttractionIndex(attractions);
+		Random random = new Random(7);
+
+		for (int i = 0; i < 200; i++) {
+			Location location = randomLocation(random);
+			for (double miles : new double[] { 10, 250, 3000 }) {
+				List<Attraction> expected = attractions.stream()
+						.filter(a -> rewardsService.getDistance(a, location) <= miles)
+						.collect(Collectors.toList());
+				assertEquals(expected, index.withinDistance(location, miles));
+			}
+		}
+	}
+
+	@Test
+	public void visitWithinDistanceVisitsTheMatchesUntilStopped() {
+		List<Attraction> attractions = randomAttractions(2000, new Random(42));
+		AttractionIndex index = new AttractionIndex(attractions);
+		Location location = randomLocation(new Random(5));
+		List<Attraction> expected = index.withinDistance(location, 3000);
+		List<Attraction> visited = new ArrayList<>();
+
+		assertTrue(index.visitWithinDistance(location, Radius.ofMiles(3000), (position, attraction) -> {
+			assertSame(attractions.get(position), attraction);
+			return visited.add(attraction);
+		}));
+		assertEquals(Set.copyOf(expected), Set.copyOf(visited));
+		assertEquals(expected.size(), visited.size());
+
+		visited.clear();
+		assertFalse(index.visitWithinDistance(location, Radius.ofMiles(3000),
+				(position, attraction) -> !visited.add(attraction)));
+		assertEquals(1, visited.size());
+	}
+
+	@Test
+	public void isWithinMatchesTheDistance() {
+		List<Attraction> attractions = randomAttractions(200, new Random(42));
+		AttractionIndex index = new AttractionIndex(attractions);
+		Attraction notIndexed = randomAttractions(1, new Random(9)).get(0);
+		Random random = new Random(17);
+
+		for (int i = 0; i < 200; i++) {
+			Location location = randomLocation(random);
+			Radius radius = Radius.ofMiles(random.nextDouble() * 13_000);
+			for (Attraction attraction : List.of(attractions.get(i), notIndexed)) {
+				assertEquals(rewardsService.getDistance(attraction, location) <= radius.miles(),
+						index.isWithin(attraction, location, radius));
+			}
+		}
+	}
+
+	@Test
+	public void nearestMatchesFullSort() {
+		List<Attraction> attractions = randomAttractions(2000, new Random(42));
+		AttractionIndex index = new AttractionIndex(attractions);
+		Random random = new Random(11);
+
+		for (int i = 0; i < 200; i++) {
+			Location location = randomLocation(random);
+			List<Attraction> expected = attractions.stream()
+					.sorted(Comparator.comparingDouble(a -> rewardsService.getDistance(a, location)))
+					.limit(5)
+					.collect(Collectors.toList());
+			assertEquals(expected, index.nearest(location, 5));
+		}
+	}
+
+	@Test
+	public void nearestWithDistanceReturnsTheDistances() {
+		List<Attraction> attractions = randomAttractions(2000, new Random(42));
+		AttractionIndex index = new AttractionIndex(attractions);
+		Location location = randomLocation(new Random(13));
+
+		List<AttractionDistance> nearest = index.nearestWithDistance(location, 5);
+
+		assertEquals(index.nearest(location, 5), nearest.stream().map(AttractionDistance::attraction).toList());
+		for (AttractionDistance found : nearest) {
+			assertEquals(rewardsService.getDistance(found.attraction(), location), found.miles(), 1e-6);
+		}
+	}
+
+	@Test
+	public void hugeRadiusReturnsAllAttractions() {
+		List<Attraction> attractions = new GpsUtil().getAttractions();
+		AttractionIndex index = new AttractionIndex(attractions);
+
+		assertEquals(attractions, index.withinDistance(new Location(0, 0), Integer.MAX_VALUE));
+	}
+
+	private static List<Attraction> randomAttractions(int count, Random random) {
+		List<Attraction> attractions = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Location location = randomLocation(random);
+			attractions.add(new Attraction("attraction" + i, "city", "state", location.latitude, location.longitude));
+		}
+		return attractions;
+	}
+
+	private static Location randomLocation(Random random) {
+		return new Location(-85 + random.nextDouble() * 170, -180 + random.nextDouble() * 360);
+	}
+}
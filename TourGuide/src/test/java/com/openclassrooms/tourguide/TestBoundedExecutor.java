@@ -0,0 +1,187 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+
+public class TestBoundedExecutor {
+
+	@Test
+	public void runsTheTasksOverflowingTheQueueOnTheSubmittingThread() {
+		BoundedExecutor executor = new BoundedExecutor("platform", 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicReference<Thread> overflow = new AtomicReference<>();
+		executor.execute(() -> await(release));
+		executor.execute(() -> { });
+
+		assertEquals(1, executor.getQueueDepth());
+		executor.execute(() -> overflow.set(Thread.currentThread()));
+
+		assertSame(Thread.currentThread(), overflow.get());
+		assertEquals(1, executor.getActiveCount());
+		release.countDown();
+		executor.shutdown();
+		assertEquals(2, executor.getCompletedTaskCount());
+	}
+
+	@Test
+	public void abortPolicyRejectsTheTasksOverflowingTheQueue() {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.PLATFORM, "platform", 1, 1,
+				SaturationPolicy.ABORT);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> await(release));
+		executor.execute(() -> { });
+
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+
+		assertEquals(1, executor.getRejectedTaskCount());
+		release.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	public void discardPolicyDropsTheTasksOverflowingTheQueue() {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.PLATFORM, "platform", 1, 1,
+				SaturationPolicy.DISCARD);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean discarded = new AtomicBoolean(true);
+		executor.execute(() -> await(release));
+		executor.execute(() -> { });
+
+		executor.execute(() -> discarded.set(false));
+
+		assertEquals(1, executor.getRejectedTaskCount());
+		release.countDown();
+		executor.shutdown();
+		assertTrue(discarded.get());
+		assertEquals(2, executor.getCompletedTaskCount());
+	}
+
+	@Test
+	public void idleThreadsTimeOut() throws Exception {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.PLATFORM, "platform", 2, 10,
+				Duration.ofMillis(20));
+		CompletableFuture.allOf(CompletableFuture.runAsync(() -> { }, executor),
+				CompletableFuture.runAsync(() -> { }, executor)).join();
+
+		awaitUntil(() -> executor.getPoolSize() == 0);
+		executor.execute(() -> { });
+		executor.shutdown();
+	}
+
+	@Test
+	public void shutdownWaitsForTheRunningTasksAndRejectsNewOnes() {
+		BoundedExecutor executor = new BoundedExecutor("platform", 2, 10);
+		AtomicBoolean completed = new AtomicBoolean();
+		executor.execute(() -> {
+			try {
+				TimeUnit.MILLISECONDS.sleep(100);
+				completed.set(true);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		executor.shutdown();
+
+		assertTrue(completed.get());
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+	}
+
+	@Test
+	public void virtualModeBoundsTheTasksInFlight() throws Exception {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.VIRTUAL, "virtual", 2, 0);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> await(release));
+		executor.execute(() -> await(release));
+
+		Thread submitter = new Thread(() -> executor.execute(() -> await(release)));
+		submitter.start();
+		awaitUntil(() -> executor.getQueueDepth() == 1);
+
+		assertEquals(2, executor.getActiveCount());
+		assertEquals(2, executor.getPoolSize());
+		assertTrue(submitter.isAlive());
+		release.countDown();
+		submitter.join(TimeUnit.SECONDS.toMillis(10));
+		awaitUntil(() -> executor.getCompletedTaskCount() == 3);
+		assertEquals(0, executor.getActiveCount());
+		executor.shutdown();
+	}
+
+	@Test
+	public void virtualModeWithTheAbortPolicyNeverBlocksTheSubmitter() throws Exception {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.VIRTUAL, "virtual", 1, 1, SaturationPolicy.ABORT);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> await(release));
+		executor.execute(() -> { });
+
+		assertEquals(1, executor.getQueueDepth());
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+		assertEquals(1, executor.getRejectedTaskCount());
+		release.countDown();
+		awaitUntil(() -> executor.getCompletedTaskCount() == 2);
+		assertEquals(0, executor.getQueueDepth());
+		executor.shutdown();
+	}
+
+	@Test
+	public void virtualModeFallsBackToPlatformThreadsBeforeJava21() {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.VIRTUAL, "virtual", 2, 0);
+
+		Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+
+		assertEquals(Runtime.version().feature() >= 21, isVirtual(thread));
+		assertTrue(thread.getName().startsWith("virtual-"));
+		assertEquals(ExecutionMode.VIRTUAL, executor.getMode());
+		executor.shutdown();
+	}
+
+	@Test
+	public void virtualModeRejectsTasksOnceShutDown() {
+		BoundedExecutor executor = new BoundedExecutor(ExecutionMode.VIRTUAL, "virtual", 2, 0);
+		executor.shutdown();
+
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+	}
+
+	private static boolean isVirtual(Thread thread) {
+		try {
+			return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+}
@@ -0,0 +1,116 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.tourguide.cache.ExpiringCache;
+
+public class TestExpiringCache {
+
+	@Test
+	public void countsHitsAndMisses() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+		assertEquals(3, cache.getOrLoad("abc", String::length));
+		assertEquals(3, cache.getOrLoad("abc", key -> 0));
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void loadsOnlyTheMissingKeysInOneCall() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+		cache.getOrLoad("a", String::length);
+		AtomicReference<Set<String>> loaded = new AtomicReference<>();
+
+		Map<String, CompletableFuture<Integer>> values = cache.getAll(List.of("a", "bb", "ccc", "bb"), keys -> {
+			loaded.set(Set.copyOf(keys));
+			return keys.stream().collect(Collectors.toMap(k -> k, k -> CompletableFuture.completedFuture(k.length())));
+		});
+
+		assertEquals(Set.of("bb", "ccc"), loaded.get());
+		assertEquals(List.of("a", "bb", "ccc"), List.copyOf(values.keySet()));
+		assertEquals(3, values.get("ccc").join());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test
+	public void completesEachLoadedKeyOnItsOwn() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+		CompletableFuture<Integer> slow = new CompletableFuture<>();
+
+		Map<String, CompletableFuture<Integer>> values = cache.getAll(List.of("a", "bb", "ccc"), keys -> Map.of(
+				"a", CompletableFuture.completedFuture(1),
+				"bb", CompletableFuture.failedFuture(new IllegalStateException("down")),
+				"ccc", slow));
+
+		assertEquals(1, values.get("a").join());
+		assertTrue(values.get("bb").isCompletedExceptionally());
+		assertFalse(values.get("ccc").isDone());
+		// the failed key is not cached, the others are
+		assertEquals(2, cache.size());
+		slow.complete(3);
+		assertEquals(3, values.get("ccc").join());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedEntries() {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(2, Duration.ofMinutes(1));
+
+		cache.getOrLoad(1, key -> key);
+		cache.getOrLoad(2, key -> key);
+		cache.getOrLoad(1, key -> key);
+		cache.getOrLoad(3, key -> key);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.getOrLoad(1, key -> -1));
+		assertEquals(-1, cache.getOrLoad(2, key -> -1));
+	}
+
+	@Test
+	public void reloadsExpiredEntries() {
+		AtomicLong now = new AtomicLong();
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofSeconds(5), now::get);
+
+		cache.getOrLoad("key", key -> 1);
+		now.addAndGet(Duration.ofSeconds(4).toNanos());
+		assertEquals(1, cache.getOrLoad("key", key -> 2));
+		now.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertEquals(2, cache.getOrLoad("key", key -> 2));
+	}
+
+	@Test
+	public void concurrentCallersShareOneLoad() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+		CompletableFuture<Integer> pending = new CompletableFuture<>();
+		AtomicInteger loads = new AtomicInteger();
+
+		List<CompletableFuture<Integer>> results = IntStream.range(0, 20)
+				.mapToObj(i -> cache.get("key", key -> {
+					loads.incrementAndGet();
+					return pending;
+				}))
+				.collect(Collectors.toList());
+		pending.complete(42);
+
+		assertEquals(1, loads.get());
+		results.forEach(result -> assertEquals(42, result.join()));
+	}
+}
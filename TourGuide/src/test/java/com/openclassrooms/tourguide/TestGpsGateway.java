@@ -0,0 +1,127 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.gateway.Lane;
+import com.openclassrooms.tourguide.gateway.LaneStatistics;
+
+public class TestGpsGateway {
+
+	@Test
+	public void admitsInteractiveLookupsAheadOfBackgroundOnes() throws InterruptedException {
+		GpsGateway gpsGateway = new GpsGateway(instantGpsUtil(), 20);
+		// Empty the bucket so that every following lookup waits for a permit
+		for (int i = 0; i < 20; i++) {
+			gpsGateway.getUserLocation(UUID.randomUUID(), Lane.BACKGROUND);
+		}
+		List<Lane> admitted = new CopyOnWriteArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		List<CompletableFuture<Void>> background = IntStream.range(0, 10)
+				.mapToObj(i -> CompletableFuture.runAsync(() -> lookup(gpsGateway, Lane.BACKGROUND, admitted),
+						executor))
+				.toList();
+		awaitUntil(() -> gpsGateway.getStatistics(Lane.BACKGROUND).waiting() == 10);
+
+		lookup(gpsGateway, Lane.INTERACTIVE, admitted);
+		background.forEach(CompletableFuture::join);
+		executor.shutdown();
+
+		// At most one background lookup got the permit refilled before the interactive one arrived
+		assertTrue(admitted.indexOf(Lane.INTERACTIVE) <= 1);
+		assertEquals(11, admitted.size());
+	}
+
+	@Test
+	public void admitsBackgroundLookupsWaitingLongerThanTheMaxBackgroundWait() throws Exception {
+		GpsGateway gpsGateway = new GpsGateway(instantGpsUtil(), 20, Duration.ofMillis(100));
+		for (int i = 0; i < 20; i++) {
+			gpsGateway.getUserLocation(UUID.randomUUID(), Lane.BACKGROUND);
+		}
+		// Interactive lookups keep waiting for the permits until the background one is admitted
+		AtomicBoolean stop = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(6);
+		for (int i = 0; i < 5; i++) {
+			executor.execute(() -> {
+				while (!stop.get()) {
+					lookup(gpsGateway, Lane.INTERACTIVE, new CopyOnWriteArrayList<>());
+				}
+			});
+		}
+		awaitUntil(() -> gpsGateway.getStatistics(Lane.INTERACTIVE).waiting() == 5);
+
+		try {
+			CompletableFuture.runAsync(() -> lookup(gpsGateway, Lane.BACKGROUND, new CopyOnWriteArrayList<>()),
+					executor).get(2, TimeUnit.SECONDS);
+
+			assertTrue(gpsGateway.getStatistics(Lane.INTERACTIVE).waiting() > 0);
+		} finally {
+			stop.set(true);
+			executor.shutdown();
+		}
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void recordsPermitWaitTimesPerLane() throws InterruptedException {
+		GpsGateway gpsGateway = new GpsGateway(instantGpsUtil(), 100);
+		for (int i = 0; i < 110; i++) {
+			gpsGateway.getUserLocation(UUID.randomUUID(), Lane.BACKGROUND);
+		}
+		gpsGateway.getUserLocation(UUID.randomUUID(), Lane.INTERACTIVE);
+
+		LaneStatistics background = gpsGateway.getStatistics(Lane.BACKGROUND);
+		LaneStatistics interactive = gpsGateway.getStatistics(Lane.INTERACTIVE);
+		assertEquals(110L, background.permits());
+		assertEquals(1L, interactive.permits());
+		assertEquals(0, background.waiting());
+		// The 10 lookups beyond the initial burst waited for the bucket to refill
+		assertTrue(background.totalWait().toMillis() >= 50);
+		assertTrue(background.maxWait().compareTo(background.averageWait()) >= 0);
+	}
+
+	private static void lookup(GpsGateway gpsGateway, Lane lane, List<Lane> admitted) {
+		try {
+			gpsGateway.getUserLocation(UUID.randomUUID(), lane);
+			admitted.add(lane);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	private static GpsUtil instantGpsUtil() {
+		return new GpsUtil() {
+			@Override
+			public VisitedLocation getUserLocation(UUID userId) {
+				return new VisitedLocation(userId, new Location(0, 0), new Date());
+			}
+		};
+	}
+}
@@ -0,0 +1,64 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.location.Location;
+import com.openclassrooms.tourguide.geo.GreatCircle;
+import com.openclassrooms.tourguide.geo.Radius;
+
+public class TestGreatCircle {
+
+	@Test
+	public void distanceMatchesTheSphericalLawOfCosines() {
+		Random random = new Random(3);
+		for (int i = 0; i < 10_000; i++) {
+			Location loc1 = randomLocation(random);
+			Location loc2 = randomLocation(random);
+
+			double expected = lawOfCosines(loc1, loc2);
+
+			assertEquals(expected, GreatCircle.distance(loc1, loc2), Math.max(1e-6, expected * 1e-9));
+		}
+	}
+
+	@Test
+	public void isWithinAgreesWithTheDistance() {
+		Random random = new Random(5);
+		for (int i = 0; i < 10_000; i++) {
+			Location loc1 = randomLocation(random);
+			Location loc2 = randomLocation(random);
+			double miles = random.nextDouble() * 13_000;
+
+			assertEquals(GreatCircle.distance(loc1, loc2) <= miles, GreatCircle.isWithin(loc1, loc2, miles));
+			assertEquals(GreatCircle.distance(loc1, loc2) <= miles,
+					GreatCircle.isWithin(loc1, loc2, Radius.ofMiles(miles)));
+		}
+	}
+
+	@Test
+	public void sameLocationIsAtZeroMiles() {
+		Location location = new Location(33.817595, -117.922008);
+
+		assertEquals(0.0, GreatCircle.distance(location, location));
+		assertTrue(GreatCircle.isWithin(location, location, 0));
+	}
+
+	private static double lawOfCosines(Location loc1, Location loc2) {
+		double lat1 = Math.toRadians(loc1.latitude);
+		double lon1 = Math.toRadians(loc1.longitude);
+		double lat2 = Math.toRadians(loc2.latitude);
+		double lon2 = Math.toRadians(loc2.longitude);
+		double angle = Math.acos(Math.sin(lat1) * Math.sin(lat2)
+				+ Math.cos(lat1) * Math.cos(lat2) * Math.cos(lon1 - lon2));
+		return 1.15077945 * 60 * Math.toDegrees(angle);
+	}
+
+	private static Location randomLocation(Random random) {
+		return new Location(-85 + random.nextDouble() * 170, -180 + random.nextDouble() * 360);
+	}
+}
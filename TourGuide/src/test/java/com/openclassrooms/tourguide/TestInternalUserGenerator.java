@@ -0,0 +1,83 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.VisitedLocation;
+import rewardCentral.RewardCentral;
+import tripPricer.TripPricer;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.helper.InternalUserGenerator;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.service.TripDealService;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.InMemoryUserRepository;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestInternalUserGenerator {
+
+	@Test
+	public void sameSeedGeneratesTheSameUsers() {
+		Instant now = Instant.now();
+		User user = new InternalUserGenerator(7, now).generate(12);
+		User replayed = new InternalUserGenerator(7, now).generate(12);
+
+		assertEquals("internalUser12", user.getUserName());
+		assertEquals(user.getUserId(), replayed.getUserId());
+		assertEquals(4, user.getUserId().version());
+		assertEquals(3, user.getVisitedLocations().size());
+		for (int i = 0; i < 3; i++) {
+			VisitedLocation location = user.getVisitedLocations().get(i);
+			assertEquals(location.location.latitude, replayed.getVisitedLocations().get(i).location.latitude);
+			assertEquals(location.location.longitude, replayed.getVisitedLocations().get(i).location.longitude);
+			assertTrue(!location.timeVisited.toInstant().isAfter(now));
+			assertTrue(location.timeVisited.toInstant().isAfter(now.minus(Duration.ofDays(30))));
+		}
+		assertNotEquals(user.getUserId(), new InternalUserGenerator(8, now).generate(12).getUserId());
+	}
+
+	@Test
+	public void generatesEveryUserInParallel() {
+		Set<User> users = ConcurrentHashMap.newKeySet();
+
+		new InternalUserGenerator(7).generate(10_000, users::add);
+
+		assertEquals(10_000, users.size());
+		assertEquals(10_000, users.stream().map(User::getUserName).collect(Collectors.toSet()).size());
+		assertEquals(10_000, users.stream().map(User::getUserId).collect(Collectors.toSet()).size());
+	}
+
+	@Test
+	public void loadsTheUsersOutsideOfTheConstructor() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		GpsGateway gpsGateway = new GpsGateway(gpsUtil);
+		BoundedExecutor requestExecutor = new BoundedExecutor("requests", 10, 100);
+		InternalTestHelper.setInternalUserNumber(1000);
+		TourGuideService tourGuideService = new TourGuideService(gpsGateway, rewardsService,
+				new InMemoryUserRepository(),
+				new TrackingPipeline(gpsGateway, rewardsService, new BoundedExecutor("tracking", 10, 100)),
+				requestExecutor, TrackerSettings.DEFAULT, new TripDealService(new TripPricer(), requestExecutor));
+		tourGuideService.tracker.stopTracking();
+
+		tourGuideService.getInternalUsersLoaded().join();
+
+		assertEquals(1000, tourGuideService.getAllUsers().size());
+		User user = tourGuideService.getUser("internalUser999");
+		assertEquals(3, user.getVisitedLocations().size());
+	}
+}
@@ -0,0 +1,80 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+import tripPricer.TripPricer;
+import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.metrics.MeteredGpsUtil;
+import com.openclassrooms.tourguide.metrics.MeteredTripPricer;
+import com.openclassrooms.tourguide.metrics.TourGuideMetrics;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.simulator.LatencyProfile;
+import com.openclassrooms.tourguide.simulator.SimulatedFailureException;
+import com.openclassrooms.tourguide.simulator.SimulatedGpsUtil;
+import com.openclassrooms.tourguide.simulator.SimulatedRewardCentral;
+import com.openclassrooms.tourguide.simulator.SimulatedTripPricer;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestMetrics {
+
+	@Test
+	public void meteredLibrariesTimeTheirCalls() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		GpsUtil gpsUtil = new MeteredGpsUtil(new SimulatedGpsUtil(7, SimulatorSettings.INSTANT,
+				List.of(new Attraction("Disneyland", "Anaheim", "CA", 33.817595, -117.922008))), registry);
+		TripPricer tripPricer = new MeteredTripPricer(
+				new SimulatedTripPricer(7, new SimulatorSettings(LatencyProfile.none(), 0, 1)), registry);
+
+		gpsUtil.getUserLocation(UUID.randomUUID());
+		assertThrows(SimulatedFailureException.class, () -> tripPricer.getPrice("key", UUID.randomUUID(), 1, 0, 1, 0));
+
+		assertEquals(1, registry.get("tourguide.gateway.latency")
+				.tags("gateway", "gpsUtil", "method", "getUserLocation", "outcome", "success").timer().count());
+		assertEquals(1, registry.get("tourguide.gateway.latency")
+				.tags("gateway", "tripPricer", "method", "getPrice", "outcome", "failure").timer().count());
+	}
+
+	@Test
+	public void publishesTheStatisticsOfTheComponents() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		GpsUtil gpsUtil = new SimulatedGpsUtil(7, SimulatorSettings.INSTANT);
+		RewardsService rewardsService = new RewardsService(gpsUtil,
+				new SimulatedRewardCentral(7, SimulatorSettings.INSTANT));
+		InternalTestHelper.setInternalUserNumber(3);
+		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
+		tourGuideService.tracker.stopTracking();
+		new TourGuideMetrics(tourGuideService, tourGuideService.getGpsGateway(),
+				List.of(rewardsService.getRewardsExecutor())).bindTo(registry);
+
+		User user = tourGuideService.getAllUsers().get(0);
+		Attraction attraction = rewardsService.getAttractionCatalog().getAttractions().get(0);
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), attraction, new Date()));
+		rewardsService.calculateRewards(user);
+		User newUser = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		tourGuideService.trackUserLocation(newUser);
+
+		assertEquals(3, registry.get("tourguide.users").gauge().value());
+		assertTrue(registry.get("tourguide.rewards.evaluated").functionCounter().count() >= 1);
+		assertEquals(user.getUserRewards().size() + newUser.getUserRewards().size(),
+				registry.get("tourguide.rewards.granted").functionCounter().count());
+		assertEquals(0, registry.get("tourguide.executor.queue.depth").tag("executor", "rewards").gauge().value());
+		assertEquals(1, registry.get("tourguide.gps.permit.wait").tag("lane", "interactive").functionTimer().count());
+		assertEquals(0, registry.get("tourguide.gps.permit.wait").tag("lane", "background").functionTimer().count());
+	}
+}
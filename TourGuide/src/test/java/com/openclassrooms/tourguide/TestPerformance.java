@@ -15,13 +15,16 @@ import org.junit.jupiter.api.Test;
 import gpsUtil.GpsUtil;
 import gpsUtil.location.Attraction;
 import gpsUtil.location.VisitedLocation;
-import rewardCentral.RewardCentral;
 import com.openclassrooms.tourguide.helper.InternalTestHelper;
 import com.openclassrooms.tourguide.service.RewardsService;
 import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.simulator.SimulatedGpsUtil;
+import com.openclassrooms.tourguide.simulator.SimulatedRewardCentral;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
 import com.openclassrooms.tourguide.user.User;
 
 public class TestPerformance {
+	private static final long SEED = 42;
 
 	/*
 	 * A note on performance improvements:
@@ -35,6 +38,9 @@ public class TestPerformance {
 	 * These tests can be modified to suit new solutions, just as long as the
 	 * performance metrics at the end of the tests remains consistent.
 	 * 
+	 * GpsUtil and RewardCentral are simulated in-process with the latencies and the
+	 * rate limit of the vendor libraries, but seeded, so that runs are comparable.
+	 * 
 	 * These are performance metrics that we are trying to hit:
 	 * 
 	 * highVolumeTrackLocation: 100,000 users within 15 minutes:
@@ -49,8 +55,9 @@ public class TestPerformance {
 
 	@Test
 	public void highVolumeTrackLocation() throws InterruptedException, ExecutionException {
-		GpsUtil gpsUtil = new GpsUtil();
-		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		GpsUtil gpsUtil = new SimulatedGpsUtil(SEED, SimulatorSettings.GPS_UTIL);
+		RewardsService rewardsService = new RewardsService(gpsUtil,
+				new SimulatedRewardCentral(SEED, SimulatorSettings.REWARD_CENTRAL));
 		// Users should be incremented up to 100,000, and test finishes within 15 minutes
 		InternalTestHelper.setInternalUserNumber(100000);
 		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
@@ -70,8 +77,9 @@ public class TestPerformance {
 
 	@Test
 	public void highVolumeGetRewards() throws InterruptedException, ExecutionException {
-		GpsUtil gpsUtil = new GpsUtil();
-		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		GpsUtil gpsUtil = new SimulatedGpsUtil(SEED, SimulatorSettings.GPS_UTIL);
+		RewardsService rewardsService = new RewardsService(gpsUtil,
+				new SimulatedRewardCentral(SEED, SimulatorSettings.REWARD_CENTRAL));
 
 		// Users should be incremented up to 100,000, and test finishes within 20 minutes
 		InternalTestHelper.setInternalUserNumber(100000);
@@ -0,0 +1,180 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import rewardCentral.RewardCentral;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.gateway.RewardCentralGateway;
+import com.openclassrooms.tourguide.gateway.RewardPointsKey;
+
+public class TestRewardCentralGateway {
+
+	@Test
+	public void dispatchesTheRequestsOfAWindowTogether() {
+		CountingRewardCentral rewardCentral = new CountingRewardCentral();
+		RewardCentralGateway gateway = new RewardCentralGateway(rewardCentral, new BoundedExecutor("points", 10, 100),
+				Duration.ofMillis(100), 256);
+		RewardPointsKey first = new RewardPointsKey(UUID.randomUUID(), UUID.randomUUID());
+		RewardPointsKey second = new RewardPointsKey(UUID.randomUUID(), UUID.randomUUID());
+
+		Map<RewardPointsKey, CompletableFuture<Integer>> a = gateway.getPointsAsync(List.of(first, second));
+		Map<RewardPointsKey, CompletableFuture<Integer>> b = gateway.getPointsAsync(List.of(second));
+
+		assertEquals(2, a.size());
+		assertEquals(a.get(second).join(), b.get(second).join());
+		assertEquals(1, gateway.getBatchCount());
+		assertEquals(2, rewardCentral.calls.get());
+		gateway.close();
+	}
+
+	@Test
+	public void dispatchesAFullBatchBeforeTheEndOfItsWindow() throws Exception {
+		RewardCentralGateway gateway = new RewardCentralGateway(new CountingRewardCentral(),
+				new BoundedExecutor("points", 10, 100), Duration.ofMinutes(1), 2);
+
+		Map<RewardPointsKey, CompletableFuture<Integer>> points = gateway.getPointsAsync(List.of(
+				new RewardPointsKey(UUID.randomUUID(), UUID.randomUUID()),
+				new RewardPointsKey(UUID.randomUUID(), UUID.randomUUID())));
+
+		assertEquals(2, points.size());
+		for (CompletableFuture<Integer> point : points.values()) {
+			assertTrue(point.get(10, TimeUnit.SECONDS) > 0);
+		}
+		assertEquals(1, gateway.getBatchCount());
+		gateway.close();
+	}
+
+	@Test
+	public void dispatchesRightAwayOnceClosed() {
+		CountingRewardCentral rewardCentral = new CountingRewardCentral();
+		RewardCentralGateway gateway = new RewardCentralGateway(rewardCentral, new BoundedExecutor("points", 10, 100),
+				Duration.ofMinutes(1), 256);
+		gateway.close();
+
+		Map<RewardPointsKey, Integer> points = gateway.getPoints(
+				List.of(new RewardPointsKey(UUID.randomUUID(), UUID.randomUUID())));
+
+		assertEquals(1, points.size());
+		assertEquals(1, rewardCentral.calls.get());
+	}
+
+	@Test
+	public void failsTheCallsASaturatedExecutorRejectsWithoutStallingLaterWindows() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RewardCentral rewardCentral = new RewardCentral() {
+			@Override
+			public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return 1;
+			}
+		};
+		BoundedExecutor dispatchExecutor = new BoundedExecutor(ExecutionMode.PLATFORM, "points", 1, 1,
+				SaturationPolicy.ABORT);
+		RewardCentralGateway gateway = new RewardCentralGateway(rewardCentral, dispatchExecutor,
+				Duration.ofMillis(1), 256);
+
+		CompletableFuture<Integer> running = pointsOf(gateway, newKey());
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Integer> queued = pointsOf(gateway, newKey());
+		while (dispatchExecutor.getQueueDepth() == 0) {
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+		CompletableFuture<Integer> rejected = pointsOf(gateway, newKey());
+		CompletableFuture<Integer> nextWindow = pointsOf(gateway, newKey());
+
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof RejectedExecutionException);
+		assertThrows(ExecutionException.class, () -> nextWindow.get(5, TimeUnit.SECONDS));
+		assertFalse(running.isDone());
+		release.countDown();
+		assertEquals(1, running.get(10, TimeUnit.SECONDS));
+		assertEquals(1, queued.get(10, TimeUnit.SECONDS));
+		assertEquals(1, gateway.getPoints(List.of(newKey())).size());
+		gateway.close();
+		dispatchExecutor.shutdown();
+	}
+
+	@Test
+	public void completesEachKeyWithoutWaitingForTheSlowOrFailedOnes() throws Exception {
+		RewardPointsKey slow = newKey();
+		RewardPointsKey failing = newKey();
+		RewardPointsKey fast = newKey();
+		CountDownLatch release = new CountDownLatch(1);
+		RewardCentral rewardCentral = new RewardCentral() {
+			@Override
+			public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+				if (attractionId.equals(failing.attractionId())) {
+					throw new IllegalStateException("RewardCentral is down");
+				}
+				if (attractionId.equals(slow.attractionId())) {
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return 1;
+			}
+		};
+		BoundedExecutor dispatchExecutor = new BoundedExecutor("points", 3, 10);
+		RewardCentralGateway gateway = new RewardCentralGateway(rewardCentral, dispatchExecutor,
+				Duration.ofMillis(1), 256);
+
+		Map<RewardPointsKey, CompletableFuture<Integer>> points = gateway.getPointsAsync(List.of(slow, failing, fast));
+
+		try {
+			assertEquals(1, points.get(fast).get(5, TimeUnit.SECONDS));
+			ExecutionException failure = assertThrows(ExecutionException.class,
+					() -> points.get(failing).get(5, TimeUnit.SECONDS));
+			assertTrue(failure.getCause() instanceof IllegalStateException);
+			assertFalse(points.get(slow).isDone());
+		} finally {
+			release.countDown();
+		}
+		assertEquals(1, points.get(slow).get(10, TimeUnit.SECONDS));
+		gateway.close();
+		dispatchExecutor.shutdown();
+	}
+
+	private static CompletableFuture<Integer> pointsOf(RewardCentralGateway gateway, RewardPointsKey key) {
+		return gateway.getPointsAsync(List.of(key)).get(key);
+	}
+
+	private static RewardPointsKey newKey() {
+		return new RewardPointsKey(UUID.randomUUID(), UUID.randomUUID());
+	}
+
+	private static final class CountingRewardCentral extends RewardCentral {
+		private final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+			calls.incrementAndGet();
+			return 1 + Math.floorMod(attractionId.hashCode() ^ userId.hashCode(), 1000);
+		}
+	}
+}
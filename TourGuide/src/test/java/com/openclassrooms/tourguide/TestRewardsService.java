@@ -1,16 +1,21 @@
 package com.openclassrooms.tourguide;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.jupiter.api.Test;
 
 import gpsUtil.GpsUtil;
 import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
 import gpsUtil.location.VisitedLocation;
 import rewardCentral.RewardCentral;
 import com.openclassrooms.tourguide.helper.InternalTestHelper;
@@ -38,6 +43,76 @@ public class TestRewardsService {
 		assertTrue(userRewards.size() == 1);
 	}
 
+	@Test
+	public void evaluatesOnlyNewLocations() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		Attraction attraction = rewardsService.getAttractionCatalog().getAttractions().get(0);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), new Location(0, 0), new Date()));
+		rewardsService.calculateRewards(user);
+		assertEquals(1, user.getRewardCheckpoint().evaluatedLocations());
+		assertTrue(user.getUserRewards().isEmpty());
+
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), attraction, new Date()));
+		rewardsService.calculateRewards(user);
+
+		assertEquals(2, user.getRewardCheckpoint().evaluatedLocations());
+		assertEquals(1, user.getUserRewards().size());
+	}
+
+	@Test
+	public void keepsTheOtherRewardsWhenSomePointsCannotBeFetched() {
+		GpsUtil gpsUtil = new GpsUtil();
+		Set<UUID> failing = ConcurrentHashMap.newKeySet();
+		RewardCentral rewardCentral = new RewardCentral() {
+			@Override
+			public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+				if (failing.contains(attractionId)) {
+					throw new IllegalStateException("RewardCentral is down");
+				}
+				return 1;
+			}
+		};
+		RewardsService rewardsService = new RewardsService(gpsUtil, rewardCentral);
+		List<Attraction> attractions = rewardsService.getAttractionCatalog().getAttractions();
+		failing.add(attractions.get(1).attractionId);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), attractions.get(0), new Date()));
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), attractions.get(1), new Date()));
+		assertThrows(CompletionException.class, () -> rewardsService.calculateRewards(user));
+
+		assertEquals(1, user.getUserRewards().size());
+		assertEquals(0, user.getRewardCheckpoint().evaluatedLocations());
+
+		failing.clear();
+		rewardsService.calculateRewards(user);
+
+		assertEquals(2, user.getUserRewards().size());
+		assertEquals(2, user.getRewardCheckpoint().evaluatedLocations());
+	}
+
+	@Test
+	public void reevaluatesLocationsWhenProximityBufferChanges() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		Attraction attraction = rewardsService.getAttractionCatalog().getAttractions().get(0);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		// about 35 miles north of the attraction
+		Location location = new Location(attraction.latitude + 0.5, attraction.longitude);
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), location, new Date()));
+		rewardsService.calculateRewards(user);
+		assertTrue(user.getUserRewards().isEmpty());
+
+		rewardsService.setProximityBuffer(50);
+		rewardsService.calculateRewards(user);
+
+		assertEquals(1, user.getUserRewards().size());
+	}
+
 	@Test
 	public void isWithinAttractionProximity() {
 		GpsUtil gpsUtil = new GpsUtil();
@@ -0,0 +1,116 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+import tripPricer.Provider;
+import com.openclassrooms.tourguide.simulator.LatencyProfile;
+import com.openclassrooms.tourguide.simulator.SimulatedFailureException;
+import com.openclassrooms.tourguide.simulator.SimulatedGpsUtil;
+import com.openclassrooms.tourguide.simulator.SimulatedRewardCentral;
+import com.openclassrooms.tourguide.simulator.SimulatedTripPricer;
+import com.openclassrooms.tourguide.simulator.SimulatorSettings;
+
+public class TestSimulators {
+	private static final List<Attraction> ATTRACTIONS = List.of(
+			new Attraction("Disneyland", "Anaheim", "CA", 33.817595, -117.922008));
+
+	@Test
+	public void sameSeedReplaysTheSameOutputs() {
+		UUID userId = UUID.randomUUID();
+		SimulatedGpsUtil first = new SimulatedGpsUtil(7, SimulatorSettings.INSTANT, ATTRACTIONS);
+		SimulatedGpsUtil second = new SimulatedGpsUtil(7, SimulatorSettings.INSTANT, ATTRACTIONS);
+
+		for (int i = 0; i < 3; i++) {
+			VisitedLocation expected = first.getUserLocation(userId);
+			VisitedLocation actual = second.getUserLocation(userId);
+			assertEquals(expected.location.latitude, actual.location.latitude);
+			assertEquals(expected.location.longitude, actual.location.longitude);
+		}
+
+		UUID attractionId = ATTRACTIONS.get(0).attractionId;
+		assertEquals(new SimulatedRewardCentral(7, SimulatorSettings.INSTANT).getAttractionRewardPoints(attractionId, userId),
+				new SimulatedRewardCentral(7, SimulatorSettings.INSTANT).getAttractionRewardPoints(attractionId, userId));
+
+		List<Provider> providers = new SimulatedTripPricer(7, SimulatorSettings.INSTANT)
+				.getPrice("key", attractionId, 2, 1, 7, 500);
+		List<Provider> replayed = new SimulatedTripPricer(7, SimulatorSettings.INSTANT)
+				.getPrice("key", attractionId, 2, 1, 7, 500);
+		assertEquals(5, providers.size());
+		for (int i = 0; i < providers.size(); i++) {
+			assertEquals(providers.get(i).name, replayed.get(i).name);
+			assertEquals(providers.get(i).price, replayed.get(i).price);
+			assertEquals(providers.get(i).tripId, replayed.get(i).tripId);
+		}
+	}
+
+	@Test
+	public void successiveLocationsOfAUserDiffer() {
+		SimulatedGpsUtil gpsUtil = new SimulatedGpsUtil(7, SimulatorSettings.INSTANT, ATTRACTIONS);
+		UUID userId = UUID.randomUUID();
+
+		VisitedLocation first = gpsUtil.getUserLocation(userId);
+		VisitedLocation second = gpsUtil.getUserLocation(userId);
+
+		assertTrue(first.location.latitude != second.location.latitude
+				|| first.location.longitude != second.location.longitude);
+	}
+
+	@Test
+	public void callsLastTheirLatency() {
+		SimulatedRewardCentral rewardCentral = new SimulatedRewardCentral(7,
+				new SimulatorSettings(LatencyProfile.fixed(Duration.ofMillis(50)), 0, 0));
+
+		long start = System.nanoTime();
+		rewardCentral.getAttractionRewardPoints(UUID.randomUUID(), UUID.randomUUID());
+
+		assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+	}
+
+	@Test
+	public void callsAreRateLimited() {
+		SimulatedGpsUtil gpsUtil = new SimulatedGpsUtil(7, new SimulatorSettings(LatencyProfile.none(), 100, 0),
+				ATTRACTIONS);
+		UUID userId = UUID.randomUUID();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 150; i++) {
+			gpsUtil.getUserLocation(userId);
+		}
+
+		assertTrue(System.nanoTime() - start >= Duration.ofMillis(400).toNanos());
+	}
+
+	@Test
+	public void injectsFailures() {
+		SimulatedTripPricer tripPricer = new SimulatedTripPricer(7, new SimulatorSettings(LatencyProfile.none(), 0, 1));
+
+		assertThrows(SimulatedFailureException.class,
+				() -> tripPricer.getPrice("key", UUID.randomUUID(), 1, 0, 1, 0));
+		assertEquals(1, tripPricer.getSimulator().getFailureCount());
+	}
+
+	@Test
+	public void parsesLatencyProfiles() {
+		SplittableRandom random = new SplittableRandom(1);
+
+		assertEquals(0L, LatencyProfile.parse("none").sampleNanos(random));
+		assertEquals(Duration.ofMillis(250).toNanos(), LatencyProfile.parse("fixed:250ms").sampleNanos(random));
+		long uniform = LatencyProfile.parse("uniform:1ms:2ms").sampleNanos(random);
+		assertTrue(uniform >= Duration.ofMillis(1).toNanos() && uniform <= Duration.ofMillis(2).toNanos());
+		assertEquals(Duration.ofMillis(1).plusSeconds(2).toNanos(),
+				LatencyProfile.parse("fixed:1ms,spike:1:2s").sampleNanos(random));
+		assertTrue(LatencyProfile.parse("lognormal:50ms:0.5").sampleNanos(random) > 0);
+		assertThrows(IllegalArgumentException.class, () -> LatencyProfile.parse("uniform:1ms"));
+	}
+}
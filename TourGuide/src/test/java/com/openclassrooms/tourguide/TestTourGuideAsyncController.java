@@ -0,0 +1,148 @@
+package com.openclassrooms.tourguide;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserReward;
+
+@SpringBootTest(properties = {
+		"tourguide.gateway.mode=SIMULATED",
+		"tourguide.simulator.gps.latency=none",
+		"tourguide.simulator.rewards.latency=none",
+		"tourguide.simulator.trip-pricer.latency=none",
+		"tourguide.requests.pool-size=2",
+		"tourguide.requests.queue-capacity=1" })
+@AutoConfigureMockMvc
+public class TestTourGuideAsyncController {
+
+	static {
+		// the tracker must not compete with the requests for the request executor
+		InternalTestHelper.setInternalUserNumber(0);
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TourGuideService tourGuideService;
+
+	@Autowired
+	@Qualifier("requestExecutor")
+	private BoundedExecutor requestExecutor;
+
+	private User user;
+
+	@BeforeEach
+	public void addUser() {
+		tourGuideService.tracker.stopTracking();
+		user = new User(UUID.randomUUID(), "async-" + UUID.randomUUID(), "000", "async@tourGuide.com");
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), new Location(33.817595, -117.922008),
+				new Date()));
+		tourGuideService.addUser(user);
+	}
+
+	@Test
+	public void getLocation() throws Exception {
+		MvcResult result = mockMvc.perform(get("/async/getLocation").param("userName", user.getUserName()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.userId").value(user.getUserId().toString()))
+				.andExpect(jsonPath("$.location.latitude").value(33.817595));
+	}
+
+	@Test
+	public void getNearbyAttractions() throws Exception {
+		MvcResult result = mockMvc.perform(get("/async/getNearbyAttractions").param("userName", user.getUserName()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(5))
+				.andExpect(jsonPath("$[0].attractionName").value("Disneyland"));
+	}
+
+	@Test
+	public void getRewards() throws Exception {
+		Attraction attraction = new Attraction("Disneyland", "Anaheim", "CA", 33.817595, -117.922008);
+		user.addUserReward(new UserReward(user.getLastVisitedLocation(), attraction, 42));
+
+		MvcResult result = mockMvc.perform(get("/async/getRewards").param("userName", user.getUserName()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].rewardPoints").value(42));
+	}
+
+	@Test
+	public void getTripDeals() throws Exception {
+		user.getUserPreferences().setTicketQuantity(3);
+
+		MvcResult result = mockMvc.perform(get("/async/getTripDeals").param("userName", user.getUserName()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3));
+	}
+
+	@Test
+	public void answersServiceUnavailableWhenTheRequestExecutorIsSaturated() throws Exception {
+		User newUser = new User(UUID.randomUUID(), "async-" + UUID.randomUUID(), "000", "async@tourGuide.com");
+		tourGuideService.addUser(newUser);
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < 3; i++) {
+			requestExecutor.execute(() -> {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		try {
+			MvcResult result = mockMvc.perform(get("/async/getLocation").param("userName", newUser.getUserName()))
+					.andExpect(request().asyncStarted())
+					.andReturn();
+
+			mockMvc.perform(asyncDispatch(result))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "1"));
+		} finally {
+			release.countDown();
+		}
+	}
+}
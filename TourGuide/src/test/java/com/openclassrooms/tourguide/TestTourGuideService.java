@@ -1,22 +1,47 @@
 package com.openclassrooms.tourguide;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
 import gpsUtil.GpsUtil;
 import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
 import gpsUtil.location.VisitedLocation;
 import rewardCentral.RewardCentral;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
 import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.service.NearbyAttraction;
+import com.openclassrooms.tourguide.service.NearbyAttraction.RewardPointsStatus;
 import com.openclassrooms.tourguide.service.RewardsService;
 import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.service.TripDealService;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.InMemoryUserRepository;
 import com.openclassrooms.tourguide.user.User;
 import tripPricer.Provider;
+import tripPricer.TripPricer;
 
 public class TestTourGuideService {
 
@@ -109,6 +134,246 @@ public class TestTourGuideService {
 	}
 
 
+	@Test
+	public void getNearbyAttractionsWithRewardPoints() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), new Location(33.8, -117.9), new Date()));
+
+		List<NearbyAttraction> pending = tourGuideService.getNearbyAttractions(user, Duration.ZERO);
+		List<NearbyAttraction> attractions = tourGuideService.getNearbyAttractions(user, Duration.ofSeconds(5));
+
+		tourGuideService.tracker.stopTracking();
+
+		assertEquals(5, pending.size());
+		assertEquals(5, attractions.size());
+		assertEquals("Disneyland", attractions.get(0).getAttractionName());
+		assertTrue(attractions.stream().allMatch(a -> a.getRewardPointsStatus() == RewardPointsStatus.AVAILABLE));
+		assertTrue(attractions.stream().allMatch(a -> a.getRewardPoints() > 0));
+	}
+
+	@Test
+	public void getNearbyAttractionsDoesNotWaitPastTheDeadline() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardCentral rewardCentral = new RewardCentral() {
+			@Override
+			public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+				try {
+					TimeUnit.SECONDS.sleep(2);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return 1;
+			}
+		};
+		RewardsService rewardsService = new RewardsService(gpsUtil, rewardCentral);
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), new Location(33.8, -117.9), new Date()));
+
+		long start = System.nanoTime();
+		List<NearbyAttraction> attractions = tourGuideService.getNearbyAttractions(user, Duration.ofMillis(100));
+		long elapsed = System.nanoTime() - start;
+
+		tourGuideService.tracker.stopTracking();
+
+		assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1));
+		assertTrue(attractions.stream().allMatch(a -> a.getRewardPointsStatus() == RewardPointsStatus.PENDING));
+	}
+
+	@Test
+	public void getNearbyAttractionsReportsTheFailedRewardPointsLookups() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardCentral rewardCentral = new RewardCentral() {
+			@Override
+			public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+				throw new IllegalStateException("RewardCentral is down");
+			}
+		};
+		RewardsService rewardsService = new RewardsService(gpsUtil, rewardCentral);
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), new Location(33.8, -117.9), new Date()));
+
+		List<NearbyAttraction> attractions = tourGuideService.getNearbyAttractions(user, Duration.ofSeconds(5));
+
+		tourGuideService.tracker.stopTracking();
+
+		assertEquals(5, attractions.size());
+		assertTrue(attractions.stream().allMatch(a -> a.getRewardPointsStatus() == RewardPointsStatus.FAILED));
+		assertTrue(attractions.stream().allMatch(a -> a.getRewardPoints() == 0));
+	}
+
+	@Test
+	public void getNearbyAttractionsReportsEachRewardPointsLookupOnItsOwn() {
+		GpsUtil gpsUtil = new GpsUtil();
+		Set<UUID> failing = ConcurrentHashMap.newKeySet();
+		Set<UUID> slow = ConcurrentHashMap.newKeySet();
+		CountDownLatch release = new CountDownLatch(1);
+		RewardCentral rewardCentral = new RewardCentral() {
+			@Override
+			public int getAttractionRewardPoints(UUID attractionId, UUID userId) {
+				if (failing.contains(attractionId)) {
+					throw new IllegalStateException("RewardCentral is down");
+				}
+				if (slow.contains(attractionId)) {
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return 1;
+			}
+		};
+		RewardsService rewardsService = new RewardsService(gpsUtil, rewardCentral);
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		Location location = new Location(33.8, -117.9);
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), location, new Date()));
+		List<Attraction> nearest = rewardsService.getAttractionIndex().nearest(location, 5);
+		failing.add(nearest.get(1).attractionId);
+		slow.add(nearest.get(3).attractionId);
+
+		List<NearbyAttraction> attractions;
+		try {
+			attractions = tourGuideService.getNearbyAttractions(user, Duration.ofMillis(500));
+		} finally {
+			release.countDown();
+			tourGuideService.tracker.stopTracking();
+		}
+
+		assertEquals(List.of(RewardPointsStatus.AVAILABLE, RewardPointsStatus.FAILED, RewardPointsStatus.AVAILABLE,
+				RewardPointsStatus.PENDING, RewardPointsStatus.AVAILABLE),
+				attractions.stream().map(NearbyAttraction::getRewardPointsStatus).toList());
+		assertEquals(1, attractions.get(0).getRewardPoints());
+	}
+
+	@Test
+	public void getNearbyAttractionsIsNotRejectedByASaturatedRequestExecutor() throws Exception {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		GpsGateway gpsGateway = new GpsGateway(gpsUtil);
+		BoundedExecutor requestExecutor = new BoundedExecutor(ExecutionMode.PLATFORM, "requests", 1, 1,
+				SaturationPolicy.ABORT);
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsGateway, rewardsService,
+				new InMemoryUserRepository(),
+				new TrackingPipeline(gpsGateway, rewardsService, new BoundedExecutor("tracking", 1, 10)),
+				requestExecutor, TrackerSettings.DEFAULT, new TripDealService(new TripPricer(), requestExecutor));
+		tourGuideService.tracker.stopTracking();
+
+		CountDownLatch release = new CountDownLatch(1);
+		Runnable blocked = () -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		requestExecutor.execute(blocked);
+		requestExecutor.execute(blocked);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		try {
+			CompletableFuture<List<NearbyAttraction>> rejected =
+					tourGuideService.getNearbyAttractionsAsync(user, Duration.ofSeconds(5));
+			List<NearbyAttraction> attractions = tourGuideService.getNearbyAttractions(user, Duration.ofSeconds(5));
+
+			assertTrue(rejected.isCompletedExceptionally());
+			assertEquals(5, attractions.size());
+			assertEquals(1, user.getVisitedLocations().size());
+		} finally {
+			release.countDown();
+			requestExecutor.shutdown();
+		}
+	}
+
+	@Test
+	public void concurrentLocationLookupsShareOneGpsCall() {
+		AtomicInteger gpsCalls = new AtomicInteger();
+		GpsUtil gpsUtil = new GpsUtil() {
+			@Override
+			public VisitedLocation getUserLocation(UUID userId) {
+				gpsCalls.incrementAndGet();
+				try {
+					TimeUnit.MILLISECONDS.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.getUserLocation(userId);
+			}
+		};
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsUtil, rewardsService);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		ExecutorService requestThreads = Executors.newFixedThreadPool(5);
+		CompletableFuture<VisitedLocation> background = tourGuideService.trackUserLocationInBackground(user);
+		List<CompletableFuture<VisitedLocation>> requests = IntStream.range(0, 5)
+				.mapToObj(i -> CompletableFuture.supplyAsync(() -> tourGuideService.trackUserLocation(user),
+						requestThreads))
+				.toList();
+
+		VisitedLocation visitedLocation = requests.get(0).join();
+		requests.forEach(request -> assertSame(visitedLocation, request.join()));
+		background.join();
+		tourGuideService.tracker.stopTracking();
+		requestThreads.shutdown();
+
+		// the requests share one call, but do not join the lookup of the tracker
+		assertEquals(2, gpsCalls.get());
+		assertEquals(2, user.getVisitedLocations().size());
+	}
+
+	@Test
+	public void requestsDoNotWaitForTheLookupsQueuedBehindTheTracker() throws Exception {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		GpsGateway gpsGateway = new GpsGateway(gpsUtil);
+		BoundedExecutor trackingExecutor = new BoundedExecutor("tracking", 1, 10);
+		BoundedExecutor requestExecutor = new BoundedExecutor("requests", 2, 10);
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = new TourGuideService(gpsGateway, rewardsService,
+				new InMemoryUserRepository(), new TrackingPipeline(gpsGateway, rewardsService, trackingExecutor),
+				requestExecutor, TrackerSettings.DEFAULT, new TripDealService(new TripPricer(), requestExecutor));
+		tourGuideService.tracker.stopTracking();
+
+		CountDownLatch release = new CountDownLatch(1);
+		trackingExecutor.execute(() -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		CompletableFuture<VisitedLocation> background = tourGuideService.trackUserLocationInBackground(user);
+
+		try {
+			VisitedLocation visitedLocation = CompletableFuture
+					.supplyAsync(() -> tourGuideService.trackUserLocation(user))
+					.get(5, TimeUnit.SECONDS);
+
+			assertEquals(user.getUserId(), visitedLocation.userId);
+			assertFalse(background.isDone());
+		} finally {
+			release.countDown();
+		}
+		background.get(5, TimeUnit.SECONDS);
+	}
+
     @Test
 	public void getTripDeals() {
 		GpsUtil gpsUtil = new GpsUtil();
@@ -0,0 +1,194 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+import rewardCentral.RewardCentral;
+import tripPricer.TripPricer;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.helper.InternalTestHelper;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TourGuideService;
+import com.openclassrooms.tourguide.service.TripDealService;
+import com.openclassrooms.tourguide.tracker.CadenceSettings;
+import com.openclassrooms.tourguide.tracker.OverrunPolicy;
+import com.openclassrooms.tourguide.tracker.TimingWheel;
+import com.openclassrooms.tourguide.tracker.Tracker;
+import com.openclassrooms.tourguide.tracker.TrackerCycle;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.InMemoryUserRepository;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestTracker {
+
+	@Test
+	public void tracksEveryUserOncePerInterval() throws InterruptedException {
+		InternalTestHelper.setInternalUserNumber(5);
+		Duration interval = Duration.ofMillis(200);
+		// a fixed cadence, so that no user is tracked faster or backs off
+		TourGuideService tourGuideService = newTourGuideService(instantGpsUtil(),
+				new TrackerSettings(interval, OverrunPolicy.COALESCE, 4, CadenceSettings.fixed(interval)));
+		Tracker tracker = tourGuideService.tracker;
+
+		awaitCycles(tracker, 4);
+		tracker.stopTracking();
+
+		TrackerCycle cycle = tracker.getLastCycle();
+		assertEquals(0L, cycle.failures());
+		// 3 generated locations, then one location per revolution of the wheel. A user is counted in the
+		// revolution its tracking completed in, so the users of a single revolution are not checked
+		long revolutions = tracker.getCompletedCycles();
+		tourGuideService.getAllUsers().forEach(u -> {
+			assertTrue(u.getVisitedLocations().size() >= 3 + 3);
+			assertTrue(u.getVisitedLocations().size() <= 3 + revolutions + 1);
+		});
+	}
+
+	@Test
+	public void tracksNewUsersOnTheNextTick() throws InterruptedException {
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = newTourGuideService(new GpsUtil(),
+				new TrackerSettings(Duration.ofSeconds(30), OverrunPolicy.COALESCE, 100));
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		tourGuideService.addUser(user);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (user.getLastVisitedLocation() == null && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(20);
+		}
+		tourGuideService.tracker.stopTracking();
+
+		assertNotNull(user.getLastVisitedLocation());
+	}
+
+	@Test
+	public void spreadsUsersOverTheSlotsOfTheWheel() {
+		TimingWheel<String> wheel = new TimingWheel<>(4);
+		wheel.scheduleAtPhase("a", 0);
+		wheel.scheduleAtPhase("b", 2);
+		wheel.scheduleAtPhase("c", 6);
+		wheel.schedule("d", 9);
+
+		assertEquals(List.of("a"), wheel.advance());
+		assertEquals(List.of(), wheel.advance());
+		assertEquals(List.of("b", "c"), wheel.advance());
+		for (int tick = 3; tick < 8; tick++) {
+			assertEquals(List.of(), wheel.advance());
+		}
+		// Scheduled 9 ticks ahead: slot 0 on the third revolution
+		assertEquals(List.of("d"), wheel.advance());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void skipsTicksWhenACycleOverruns() throws InterruptedException {
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = newTourGuideService(slowGpsUtil(), oneUserPerSlot(4),
+				new TrackerSettings(Duration.ofMillis(400), OverrunPolicy.SKIP, 4));
+		Tracker tracker = tourGuideService.tracker;
+
+		awaitCycles(tracker, 2);
+		tracker.stopTracking();
+
+		assertTrue(tracker.getSkippedTicks() > 0);
+		assertEquals(0L, tracker.getCoalescedTicks());
+	}
+
+	@Test
+	public void coalescesTicksWhenACycleOverruns() throws InterruptedException {
+		InternalTestHelper.setInternalUserNumber(0);
+		TourGuideService tourGuideService = newTourGuideService(slowGpsUtil(), oneUserPerSlot(4),
+				new TrackerSettings(Duration.ofMillis(400), OverrunPolicy.COALESCE, 4));
+		Tracker tracker = tourGuideService.tracker;
+
+		awaitCycles(tracker, 2);
+		tracker.stopTracking();
+
+		assertTrue(tracker.getCoalescedTicks() > 0);
+		assertEquals(0L, tracker.getSkippedTicks());
+	}
+
+	private static TourGuideService newTourGuideService(GpsUtil gpsUtil, TrackerSettings trackerSettings) {
+		return newTourGuideService(gpsUtil, new InMemoryUserRepository(), trackerSettings);
+	}
+
+	private static TourGuideService newTourGuideService(GpsUtil gpsUtil, InMemoryUserRepository userRepository,
+			TrackerSettings trackerSettings) {
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		GpsGateway gpsGateway = new GpsGateway(gpsUtil);
+		BoundedExecutor requestExecutor = new BoundedExecutor("requests", 10, 100);
+		TourGuideService tourGuideService = new TourGuideService(gpsGateway, rewardsService, userRepository,
+				new TrackingPipeline(gpsGateway, rewardsService, new BoundedExecutor("tracking", 10, 100)),
+				requestExecutor, trackerSettings, new TripDealService(new TripPricer(), requestExecutor));
+		tourGuideService.getInternalUsersLoaded().join();
+		return tourGuideService;
+	}
+
+	/**
+	 * Users whose ids hash to every slot of the wheel, so that each tick has a user to track.
+	 */
+	private static InMemoryUserRepository oneUserPerSlot(int slots) {
+		InMemoryUserRepository userRepository = new InMemoryUserRepository();
+		boolean[] filled = new boolean[slots];
+		int count = 0;
+		while (count < slots) {
+			UUID userId = UUID.randomUUID();
+			int slot = Math.floorMod(userId.hashCode(), slots);
+			if (!filled[slot]) {
+				filled[slot] = true;
+				userRepository.addIfAbsent(new User(userId, "user" + slot, "000", "user" + slot + "@tourGuide.com"));
+				count++;
+			}
+		}
+		return userRepository;
+	}
+
+	/**
+	 * GpsUtil answering right away, far from any attraction so that no RewardCentral call is made either:
+	 * every tracking completes within the tick that started it.
+	 */
+	private static GpsUtil instantGpsUtil() {
+		return new GpsUtil() {
+			@Override
+			public VisitedLocation getUserLocation(UUID userId) {
+				return new VisitedLocation(userId, new Location(0, 0), new Date());
+			}
+		};
+	}
+
+	private static GpsUtil slowGpsUtil() {
+		return new GpsUtil() {
+			@Override
+			public VisitedLocation getUserLocation(UUID userId) {
+				try {
+					TimeUnit.MILLISECONDS.sleep(350);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.getUserLocation(userId);
+			}
+		};
+	}
+
+	private static void awaitCycles(Tracker tracker, long cycles) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (tracker.getCompletedCycles() < cycles && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(20);
+		}
+		assertTrue(tracker.getCompletedCycles() >= cycles);
+	}
+}
@@ -0,0 +1,90 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+import rewardCentral.RewardCentral;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.tracker.OverrunPolicy;
+import com.openclassrooms.tourguide.tracker.TrackerSettings;
+import com.openclassrooms.tourguide.tracker.TrackingCadence;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestTrackingCadence {
+	private static final TrackerSettings SETTINGS = new TrackerSettings(Duration.ofMinutes(5), OverrunPolicy.COALESCE,
+			300);
+
+	@Test
+	public void stationaryUsersBackOffUpToTheMaxInterval() {
+		TrackingCadence cadence = new TrackingCadence(SETTINGS, new RewardsService(new GpsUtil(), new RewardCentral()));
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		// In the middle of the Atlantic, far from any attraction
+		visit(user, new Location(30, -40));
+		visit(user, new Location(30.0001, -40));
+
+		assertEquals(0, cadence.nextLevel(user, 0));
+
+		int level = 0;
+		for (int i = 0; i < 5; i++) {
+			visit(user, new Location(30, -40.0001));
+			level = cadence.nextLevel(user, level);
+		}
+
+		assertEquals(3, level);
+		assertEquals(Duration.ofMinutes(10), cadence.intervalOf(1));
+		assertEquals(Duration.ofMinutes(40), cadence.intervalOf(level));
+	}
+
+	@Test
+	public void movingUsersAreTrackedFaster() {
+		TrackingCadence cadence = new TrackingCadence(SETTINGS, new RewardsService(new GpsUtil(), new RewardCentral()));
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		visit(user, new Location(30, -40));
+		visit(user, new Location(30, -40));
+		visit(user, new Location(30.5, -40));
+
+		assertEquals(TrackingCadence.FAST, cadence.nextLevel(user, 2));
+		assertEquals(Duration.ofSeconds(150), cadence.intervalOf(TrackingCadence.FAST));
+	}
+
+	@Test
+	public void usersNearAnAttractionAreTrackedFaster() {
+		GpsUtil gpsUtil = new GpsUtil();
+		TrackingCadence cadence = new TrackingCadence(SETTINGS, new RewardsService(gpsUtil, new RewardCentral()));
+		Attraction attraction = gpsUtil.getAttractions().get(0);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		for (int i = 0; i < 3; i++) {
+			visit(user, attraction);
+		}
+
+		assertEquals(TrackingCadence.FAST, cadence.nextLevel(user, 1));
+	}
+
+	@Test
+	public void usersAlreadyRewardedForTheAttractionBackOff() {
+		RewardsService rewardsService = new RewardsService(new GpsUtil(), new RewardCentral());
+		TrackingCadence cadence = new TrackingCadence(SETTINGS, rewardsService);
+		Attraction attraction = rewardsService.getAttractionCatalog().getAttractions().get(0);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		for (int i = 0; i < 3; i++) {
+			visit(user, attraction);
+		}
+
+		assertEquals(TrackingCadence.FAST, cadence.nextLevel(user, 1));
+		rewardsService.calculateRewards(user);
+		assertEquals(2, cadence.nextLevel(user, 1));
+	}
+
+	private static void visit(User user, Location location) {
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), location, new Date()));
+	}
+}
@@ -0,0 +1,91 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.VisitedLocation;
+import rewardCentral.RewardCentral;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.TokenBucket;
+import com.openclassrooms.tourguide.gateway.GpsGateway;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.tracker.TrackingPipeline;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestTrackingPipeline {
+
+	@Test
+	public void tracksEveryUserThroughEveryStage() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		// Tiny queues so every stage has to push back on the previous one
+		BoundedExecutor fetchExecutor = new BoundedExecutor("fetch", 4, 2);
+		BoundedExecutor rewardExecutor = new BoundedExecutor("reward", 2, 2);
+		TrackingPipeline pipeline = new TrackingPipeline(new GpsGateway(gpsUtil), rewardsService, fetchExecutor,
+				rewardExecutor, 2);
+		ConcurrentHashMap<UUID, VisitedLocation> published = new ConcurrentHashMap<>();
+		pipeline.addListener((user, visitedLocation) -> published.put(user.getUserId(), visitedLocation));
+		List<User> users = IntStream.range(0, 50)
+				.mapToObj(i -> new User(UUID.randomUUID(), "user" + i, "000", "user" + i + "@tourGuide.com"))
+				.toList();
+
+		pipeline.trackAll(users).join();
+		pipeline.close();
+		fetchExecutor.shutdown();
+		rewardExecutor.shutdown();
+
+		assertEquals(50L, pipeline.getTrackedCount());
+		assertEquals(0L, pipeline.getFailedCount());
+		for (User user : users) {
+			assertEquals(1, user.getVisitedLocations().size());
+			assertSame(user.getLastVisitedLocation(), published.get(user.getUserId()));
+		}
+	}
+
+	@Test
+	public void failsUsersWhoseLocationCannotBeFetched() {
+		GpsUtil gpsUtil = new GpsUtil() {
+			@Override
+			public VisitedLocation getUserLocation(UUID userId) {
+				throw new IllegalStateException("GPS unavailable");
+			}
+		};
+		RewardsService rewardsService = new RewardsService(new GpsUtil(), new RewardCentral());
+		BoundedExecutor fetchExecutor = new BoundedExecutor("fetch", 2, 10);
+		TrackingPipeline pipeline = new TrackingPipeline(new GpsGateway(gpsUtil), rewardsService, fetchExecutor);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		assertTrue(pipeline.track(user).handle((visitedLocation, e) -> e != null).join());
+		pipeline.close();
+		fetchExecutor.shutdown();
+
+		assertEquals(0L, pipeline.getTrackedCount());
+		assertEquals(1L, pipeline.getFailedCount());
+		assertTrue(user.getVisitedLocations().isEmpty());
+	}
+
+	@Test
+	public void tokenBucketLimitsTheRate() {
+		AtomicLong now = new AtomicLong();
+		TokenBucket bucket = new TokenBucket(10, 2, now::get);
+
+		assertTrue(bucket.tryAcquire());
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+
+		now.addAndGet(100_000_000L);
+		assertTrue(bucket.tryAcquire());
+		assertFalse(bucket.tryAcquire());
+	}
+}
@@ -0,0 +1,146 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.GpsUtil;
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+import rewardCentral.RewardCentral;
+import tripPricer.Provider;
+import tripPricer.TripPricer;
+import com.openclassrooms.tourguide.concurrent.BoundedExecutor;
+import com.openclassrooms.tourguide.concurrent.ExecutionMode;
+import com.openclassrooms.tourguide.concurrent.SaturationPolicy;
+import com.openclassrooms.tourguide.service.RewardsService;
+import com.openclassrooms.tourguide.service.TripDealKey;
+import com.openclassrooms.tourguide.service.TripDealService;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestTripDealService {
+
+	@Test
+	public void servesTheSecondCallFromTheCache() {
+		CountingTripPricer tripPricer = new CountingTripPricer();
+		TripDealService tripDealService = new TripDealService(tripPricer, Runnable::run);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		List<Provider> first = tripDealService.getTripDeals(user);
+		List<Provider> second = tripDealService.getTripDeals(user);
+
+		assertEquals(1, tripPricer.calls.get());
+		assertEquals(first, second);
+	}
+
+	@Test
+	public void repeatsTheProvidersUpToTheTicketQuantity() {
+		TripDealService tripDealService = new TripDealService(new CountingTripPricer(), Runnable::run);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		user.getUserPreferences().setTicketQuantity(12);
+
+		List<Provider> providers = tripDealService.getTripDeals(user);
+
+		assertEquals(12, providers.size());
+		assertEquals(providers.get(0), providers.get(5));
+		assertEquals(providers.get(1), providers.get(6));
+	}
+
+	@Test
+	public void loadsNewDealsWhenThePreferencesChange() {
+		CountingTripPricer tripPricer = new CountingTripPricer();
+		TripDealService tripDealService = new TripDealService(tripPricer, Runnable::run);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		tripDealService.getTripDeals(user);
+		user.getUserPreferences().setNumberOfAdults(2);
+		tripDealService.getTripDeals(user);
+
+		assertEquals(2, tripPricer.calls.get());
+		assertEquals(0, tripPricer.lastRewardPoints);
+	}
+
+	@Test
+	public void prefetchesTheDealsWhenTheUserIsRewarded() {
+		GpsUtil gpsUtil = new GpsUtil();
+		RewardsService rewardsService = new RewardsService(gpsUtil, new RewardCentral());
+		CountingTripPricer tripPricer = new CountingTripPricer();
+		TripDealService tripDealService = new TripDealService(tripPricer, Runnable::run);
+		rewardsService.addRewardListener(tripDealService::prefetch);
+
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		Attraction attraction = rewardsService.getAttractionCatalog().getAttractions().get(0);
+		user.addToVisitedLocations(new VisitedLocation(user.getUserId(), attraction, new Date()));
+		rewardsService.calculateRewards(user);
+		int prefetched = tripPricer.calls.get();
+		tripDealService.getTripDeals(user);
+
+		assertEquals(1, prefetched);
+		assertEquals(1, tripPricer.calls.get());
+		assertEquals(1, tripDealService.getTripDealCache().getHitCount());
+	}
+
+	@Test
+	public void prefetchesTheDealsOfRewardedUsersOnlyIfTheyAskedForDealsBefore() {
+		CountingTripPricer tripPricer = new CountingTripPricer();
+		TripDealService tripDealService = new TripDealService(tripPricer, Runnable::run);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		tripDealService.prefetchIfRequested(user);
+		int beforeRequest = tripPricer.calls.get();
+		user.setTripDeals(tripDealService.getTripDeals(user));
+		tripDealService.prefetchIfRequested(user);
+
+		assertEquals(0, beforeRequest);
+		assertEquals(1, tripPricer.calls.get());
+	}
+
+	@Test
+	public void dropsThePrefetchesTheExecutorDiscards() {
+		CountingTripPricer tripPricer = new CountingTripPricer();
+		BoundedExecutor prefetchExecutor = new BoundedExecutor(ExecutionMode.PLATFORM, "trip-deal-prefetch", 1, 1,
+				SaturationPolicy.DISCARD);
+		CountDownLatch release = new CountDownLatch(1);
+		prefetchExecutor.execute(() -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		prefetchExecutor.execute(() -> { });
+		TripDealService tripDealService = new TripDealService(tripPricer, Runnable::run, prefetchExecutor);
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		tripDealService.prefetch(user);
+		release.countDown();
+		prefetchExecutor.shutdown();
+
+		assertEquals(1, prefetchExecutor.getRejectedTaskCount());
+		assertEquals(0, tripPricer.calls.get());
+		assertFalse(tripDealService.getTripDealCache().contains(new TripDealKey(user.getUserId(), 1, 0, 1, 0)));
+		assertEquals(1, tripDealService.getTripDealsAsync(user).join().size());
+		assertEquals(1, tripPricer.calls.get());
+	}
+
+	private static final class CountingTripPricer extends TripPricer {
+		private final AtomicInteger calls = new AtomicInteger();
+		private volatile int lastRewardPoints = -1;
+
+		@Override
+		public List<Provider> getPrice(String apiKey, UUID attractionId, int adults, int children, int nightsStay,
+				int rewardsPoints) {
+			calls.incrementAndGet();
+			lastRewardPoints = rewardsPoints;
+			return super.getPrice(apiKey, attractionId, adults, children, nightsStay, rewardsPoints);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.tourguide.user.InMemoryUserRepository;
+import com.openclassrooms.tourguide.user.User;
+
+public class TestUserRepository {
+
+	@Test
+	public void findsUsersByNameAndId() {
+		InMemoryUserRepository userRepository = new InMemoryUserRepository();
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+
+		assertTrue(userRepository.addIfAbsent(user));
+
+		assertSame(user, userRepository.findByUserName("jon").get());
+		assertSame(user, userRepository.findByUserId(user.getUserId()).get());
+		assertFalse(userRepository.findByUserName("jon2").isPresent());
+	}
+
+	@Test
+	public void addsEachNameOnlyOnce() {
+		InMemoryUserRepository userRepository = new InMemoryUserRepository();
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		User duplicate = new User(UUID.randomUUID(), "jon", "111", "jon@tourGuide.com");
+
+		List<CompletableFuture<Boolean>> adds = IntStream.range(0, 10)
+				.mapToObj(i -> CompletableFuture.supplyAsync(() -> userRepository.addIfAbsent(i == 0 ? user : duplicate)))
+				.toList();
+
+		assertEquals(1, adds.stream().filter(CompletableFuture::join).count());
+		assertEquals(1, userRepository.count());
+	}
+
+	@Test
+	public void walksThroughUsersInBatches() {
+		InMemoryUserRepository userRepository = new InMemoryUserRepository();
+		IntStream.range(0, 25).forEach(i -> userRepository
+				.addIfAbsent(new User(UUID.randomUUID(), "user" + i, "000", "user" + i + "@tourGuide.com")));
+
+		List<Integer> batchSizes = new ArrayList<>();
+		userRepository.forEachBatch(10, batch -> batchSizes.add(batch.size()));
+
+		assertEquals(List.of(10, 10, 5), batchSizes);
+	}
+}
@@ -0,0 +1,59 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.location.Attraction;
+import gpsUtil.location.VisitedLocation;
+import com.openclassrooms.tourguide.user.User;
+import com.openclassrooms.tourguide.user.UserReward;
+
+public class TestUserRewards {
+
+	@Test
+	public void keepsOneRewardPerAttraction() {
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		Attraction attraction = new Attraction("Disneyland", "Anaheim", "CA", 33.817595, -117.922008);
+		VisitedLocation visitedLocation = new VisitedLocation(user.getUserId(), attraction, new Date());
+
+		List<CompletableFuture<Boolean>> adds = IntStream.range(0, 50)
+				.mapToObj(i -> CompletableFuture.supplyAsync(
+						() -> user.addUserReward(new UserReward(visitedLocation, attraction, 100))))
+				.toList();
+
+		assertEquals(1, adds.stream().filter(CompletableFuture::join).count());
+		assertEquals(1, user.getUserRewards().size());
+		assertEquals(100, user.getCumulativeRewardPoints());
+		assertTrue(user.hasUserReward(attraction.attractionId));
+	}
+
+	@Test
+	public void snapshotsAreImmutable() {
+		User user = new User(UUID.randomUUID(), "jon", "000", "jon@tourGuide.com");
+		Attraction disneyland = new Attraction("Disneyland", "Anaheim", "CA", 33.817595, -117.922008);
+		Attraction jacksonHole = new Attraction("Jackson Hole", "Jackson Hole", "WY", 43.582767, -110.821999);
+
+		user.addUserReward(new UserReward(new VisitedLocation(user.getUserId(), disneyland, new Date()), disneyland,
+				10));
+		List<UserReward> snapshot = user.getUserRewards();
+		user.addUserReward(new UserReward(new VisitedLocation(user.getUserId(), jacksonHole, new Date()), jacksonHole,
+				20));
+
+		assertEquals(1, snapshot.size());
+		assertEquals(2, user.getUserRewards().size());
+		assertEquals(30, user.getCumulativeRewardPoints());
+		assertTrue(user.hasUserReward(jacksonHole.attractionId));
+		assertFalse(user.hasUserReward(UUID.randomUUID()));
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.add(null));
+	}
+}
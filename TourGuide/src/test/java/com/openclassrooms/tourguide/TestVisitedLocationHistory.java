@@ -0,0 +1,114 @@
+package com.openclassrooms.tourguide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import gpsUtil.location.Location;
+import gpsUtil.location.VisitedLocation;
+import com.openclassrooms.tourguide.user.VisitedLocationHistory;
+
+public class TestVisitedLocationHistory {
+
+	private final UUID userId = UUID.randomUUID();
+
+	@Test
+	public void keepsOnlyTheWindowInMemory() {
+		VisitedLocationHistory history = new VisitedLocationHistory(userId, 3);
+		for (int i = 0; i < 5; i++) {
+			history.add(visitedLocation(i));
+		}
+
+		List<VisitedLocation> recent = history.getRecent();
+
+		assertEquals(3, recent.size());
+		assertEquals(2.0, recent.get(0).location.latitude, 0);
+		assertEquals(4.0, recent.get(2).location.latitude, 0);
+		assertEquals(2, history.getArchivedCount());
+		assertSame(recent.get(2), history.getLast());
+	}
+
+	@Test
+	public void returnsLocationsSinceASequenceIncludingArchivedOnes() {
+		VisitedLocationHistory history = new VisitedLocationHistory(userId, 3);
+		for (int i = 0; i < 10; i++) {
+			history.add(visitedLocation(i));
+		}
+
+		List<VisitedLocation> since = history.getSince(4);
+
+		assertEquals(6, since.size());
+		for (int i = 0; i < since.size(); i++) {
+			assertEquals(4.0 + i, since.get(i).location.latitude, 0);
+			assertEquals(userId, since.get(i).userId);
+		}
+		assertTrue(history.getSince(10).isEmpty());
+	}
+
+	@Test
+	public void dropsTheOldestLocationsBeyondTheArchive() {
+		VisitedLocationHistory history = new VisitedLocationHistory(userId, 3, 300);
+		for (int i = 0; i < 1000; i++) {
+			history.add(visitedLocation(i));
+		}
+
+		List<VisitedLocation> since = history.getSince(0);
+
+		assertEquals(300, history.getArchivedCount());
+		assertEquals(303, since.size());
+		for (int i = 0; i < since.size(); i++) {
+			assertEquals(697.0 + i, since.get(i).location.latitude, 0);
+		}
+		assertEquals(800.0, history.getSince(800).get(0).location.latitude, 0);
+		assertEquals(1000, history.size());
+	}
+
+	@Test
+	public void keepsOnlyTheWindowWithoutAnArchive() {
+		VisitedLocationHistory history = new VisitedLocationHistory(userId, 2, 0);
+		for (int i = 0; i < 5; i++) {
+			history.add(visitedLocation(i));
+		}
+
+		List<VisitedLocation> since = history.getSince(0);
+
+		assertEquals(0, history.getArchivedCount());
+		assertEquals(2, since.size());
+		assertEquals(3.0, since.get(0).location.latitude, 0);
+		assertEquals(history.getRecent(), since);
+	}
+
+	@Test
+	public void clearRemovesEverythingButKeepsSequenceNumbers() {
+		VisitedLocationHistory history = new VisitedLocationHistory(userId, 2);
+		for (int i = 0; i < 4; i++) {
+			history.add(visitedLocation(i));
+		}
+
+		history.clear();
+
+		assertNull(history.getLast());
+		assertTrue(history.getRecent().isEmpty());
+		assertEquals(0, history.getArchivedCount());
+		assertEquals(4, history.size());
+
+		for (int i = 4; i < 7; i++) {
+			history.add(visitedLocation(i));
+		}
+		List<VisitedLocation> since = history.getSince(0);
+		assertEquals(3, since.size());
+		assertEquals(4.0, since.get(0).location.latitude, 0);
+		assertEquals(5.0, history.getSince(5).get(0).location.latitude, 0);
+	}
+
+	private VisitedLocation visitedLocation(int i) {
+		return new VisitedLocation(userId, new Location(i, i), new Date(i * 1000L));
+	}
+}